@@ -0,0 +1,260 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Analyzes the words of a book, or of any number of books, in a fixed
+ * amount of memory, giving estimates rather than exact counts.
+ *
+ * Every word is counted in a CountMinSketch, which estimates the
+ * frequency of any word, and in a HeavyHitters tracker, which keeps the
+ * most frequent words.  Half of the memory budget goes to each.  The
+ * total number of words is always exact.
+ *
+ * With N words counted, the error bounds are:
+ *      estimateFrequency  never too low, and too high by at most
+ *                         getFrequencyErrorBound(), except with
+ *                         probability getErrorProbability()
+ *      topWords           the counts are never too low, and too high by
+ *                         at most getTopWordsErrorBound(), which is never
+ *                         more than N divided by the number of tracked
+ *                         words; every word appearing more than that many
+ *                         times is included
+ *      sumTopWords        the true sum for the same words lies between
+ *                         sumTopWordsLowerBound and sumTopWords
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ApproximateWordAnalysis implements TokenSink
+{
+    // number of rows in the sketch, so estimates are within the bound
+    // except with probability e^-5, under 1%
+    private static final int DEPTH = 5;
+
+    // smallest memory budget accepted, in bytes
+    private static final long MIN_BUDGET = 1024;
+
+    // instance variables
+    private CountMinSketch sketch;
+    private HeavyHitters heavyHitters;
+    private long total;              // exact number of words counted
+
+    /**
+     * Constructor for an empty analysis using about memoryBudget bytes.
+     *
+     * @param memoryBudget  the number of bytes the counts may take up
+     */
+    public ApproximateWordAnalysis(long memoryBudget)
+    {
+        if (memoryBudget < MIN_BUDGET)
+        {
+            throw new IllegalArgumentException("The memory budget must be at least "
+                + MIN_BUDGET + " bytes.");
+        }
+        long half = memoryBudget / 2;
+        sketch = new CountMinSketch((int)Math.min(Integer.MAX_VALUE / DEPTH, half / (8 * DEPTH)),
+            DEPTH);
+        heavyHitters = new HeavyHitters(
+            (int)Math.min(Integer.MAX_VALUE / 2, half / HeavyHitters.bytesPerEntry()));
+    }
+
+    /**
+     * Constructor for an analysis of a book using about memoryBudget bytes.
+     *
+     * @param  fileName      the name of the text of the book
+     * @param  memoryBudget  the number of bytes the counts may take up
+     * @throws IOException   file is not found
+     */
+    public ApproximateWordAnalysis(String fileName, long memoryBudget) throws IOException
+    {
+        this(memoryBudget);
+        new MappedBookReader().read(fileName, new WordTokenizer(this));
+    }
+
+    /**
+     * Counts a word found by a WordTokenizer.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    public void token(char[] text, int offset, int length)
+    {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = 31 * hash + text[i];
+        }
+        sketch.add(hash);
+        heavyHitters.add(text, offset, length, hash);
+        total++;
+    }
+
+    /**
+     * Counts a word.
+     *
+     * @param word  the word to be counted
+     */
+    public void add(String word)
+    {
+        token(word.toCharArray(), 0, word.length());
+    }
+
+    /**
+     * Determines how many words, in total, have been counted.  This is
+     * exact.
+     *
+     * @return the total number of words
+     */
+    public long sumWords()
+    {
+        return total;
+    }
+
+    /**
+     * Estimates how often a word appears.
+     *
+     * @param word  the word of interest
+     * @return      the estimate, which is never below the true frequency
+     */
+    public long estimateFrequency(String word)
+    {
+        long estimate = sketch.estimate(word);
+        int position = heavyHitters.find(word);
+        if (position >= 0)
+        {
+            estimate = Math.min(estimate, heavyHitters.getCount(position));
+        }
+        return estimate;
+    }
+
+    /**
+     * Finds the k most frequent words, as far as they can be told apart.
+     * Words with the same estimate are in lexicographic order.
+     *
+     * @param k  the number of words wanted
+     * @return   up to k words with their estimated frequencies, most
+     *           frequent first
+     */
+    public ArrayList<Word> topWords(int k)
+    {
+        int[] top = topPositions(k);
+        ArrayList<Word> words = new ArrayList<Word>(top.length);
+        for (int position : top)
+        {
+            String word = heavyHitters.getWord(position);
+            words.add(new Word(word, (int)Math.min(Integer.MAX_VALUE, estimateFrequency(word))));
+        }
+        return words;
+    }
+
+    /**
+     * Estimates how many times the k most frequent words appear
+     * altogether.
+     *
+     * @param k  how many of the most frequent words to add up
+     * @return   the sum of the estimates of topWords(k), which is never
+     *           below the true sum for those words
+     */
+    public long sumTopWords(int k)
+    {
+        long sum = 0;
+        for (int position : topPositions(k))
+        {
+            sum += estimateFrequency(heavyHitters.getWord(position));
+        }
+        return sum;
+    }
+
+    /**
+     * Retrieve the least the words of topWords(k) can appear altogether.
+     *
+     * @param k  how many of the most frequent words to add up
+     * @return   the sum of each word's count less its error
+     */
+    public long sumTopWordsLowerBound(int k)
+    {
+        long sum = 0;
+        for (int position : topPositions(k))
+        {
+            sum += heavyHitters.getCount(position) - heavyHitters.getError(position);
+        }
+        return sum;
+    }
+
+    /**
+     * Retrieve the most that estimateFrequency can be too high, except
+     * with probability getErrorProbability().
+     *
+     * @return the error bound
+     */
+    public long getFrequencyErrorBound()
+    {
+        return sketch.errorBound(total);
+    }
+
+    /**
+     * Retrieve the probability that estimateFrequency is off by more than
+     * getFrequencyErrorBound().
+     *
+     * @return the probability
+     */
+    public double getErrorProbability()
+    {
+        return sketch.errorProbability();
+    }
+
+    /**
+     * Retrieve the most that a count from topWords can be too high; every
+     * word appearing more than this many times is among the tracked words.
+     *
+     * @return the error bound
+     */
+    public long getTopWordsErrorBound()
+    {
+        return heavyHitters.getMinimumCount();
+    }
+
+    /**
+     * Estimates how many bytes of memory the counts take up.
+     *
+     * @return the approximate size in bytes
+     */
+    public long memoryBytes()
+    {
+        return sketch.memoryBytes() + heavyHitters.memoryBytes();
+    }
+
+    /**
+     * Finds the tracked words with the k highest estimates.
+     *
+     * @param k  the number of words wanted
+     * @return   their positions in the tracker, highest estimate first
+     */
+    private int[] topPositions(int k)
+    {
+        int n = heavyHitters.size();
+        Integer[] order = new Integer[n];
+        long[] estimates = new long[n];
+        for (int position = 0; position < n; position++)
+        {
+            order[position] = position;
+            estimates[position] = estimateFrequency(heavyHitters.getWord(position));
+        }
+        Arrays.sort(order, (a, b) -> {
+            if (estimates[a] != estimates[b])
+            {
+                return Long.compare(estimates[b], estimates[a]);
+            }
+            return heavyHitters.getWord(a).compareTo(heavyHitters.getWord(b));
+        });
+
+        int[] top = new int[Math.max(0, Math.min(k, n))];
+        for (int i = 0; i < top.length; i++)
+        {
+            top[i] = order[i];
+        }
+        return top;
+    }
+}
@@ -0,0 +1,299 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Answers a file of queries about a book in one pass, writing one line
+ * of JSON per query through a single buffered writer.
+ *
+ * Each line of the query file holds one query.  Blank lines and lines
+ * starting with # are skipped.  The queries are:
+ *      total          the total number of words (sumWords)
+ *      unique         the number of different words
+ *      top K          the K most frequent words and their frequencies
+ *      find WORD      how often WORD appears (0 if it does not)
+ *      prefix TEXT    every word starting with TEXT, with its frequency
+ *      percent K      the percentage of the text made up by the K most
+ *                     frequent words
+ *      cover P        how many of the most frequent words make up P
+ *                     percent of the text, for P from 0 to 100
+ *
+ * For example, "top 2" is answered with
+ *      {"query":"top 2","result":[{"word":"the","frequency":14321},
+ *       {"word":"of","frequency":6578}]}
+ * all on one line, and a query that cannot be answered with
+ *      {"query":"...","error":"..."}
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class BatchQueries
+{
+    // instance variables
+    private WordAnalysis analysis;   // the book being asked about
+
+    /**
+     * Constructor for answering queries about an analyzed book.
+     *
+     * @param analysis  the analyzed book
+     */
+    public BatchQueries(WordAnalysis analysis)
+    {
+        this.analysis = analysis;
+    }
+
+    /**
+     * Answers every query read from in, writing the answers to out.
+     * out is flushed, but not closed, at the end.
+     *
+     * @param in   where the queries are read from
+     * @param out  where the answers are written
+     * @return     the number of queries answered
+     * @throws IOException the queries cannot be read or the answers written
+     */
+    public int run(BufferedReader in, Writer out) throws IOException
+    {
+        StringBuilder line = new StringBuilder();
+        int answered = 0;
+        String query = in.readLine();
+        while (query != null)
+        {
+            query = query.trim();
+            if (query.length() > 0 && !query.startsWith("#"))
+            {
+                line.setLength(0);
+                line.append("{\"query\":");
+                appendString(line, query);
+                try
+                {
+                    String result = answer(query);
+                    line.append(",\"result\":").append(result);
+                }
+                catch (IllegalArgumentException e)
+                {
+                    line.append(",\"error\":");
+                    appendString(line, e.getMessage());
+                }
+                line.append("}\n");
+                out.append(line);
+                answered++;
+            }
+            query = in.readLine();
+        }
+        out.flush();
+        return answered;
+    }
+
+    /**
+     * Answers one query.
+     *
+     * @param query  the query, without leading or trailing white space
+     * @return       the answer, written as JSON
+     * @throws IllegalArgumentException the query is not understood
+     */
+    private String answer(String query)
+    {
+        String[] parts = query.split("\\s+", 2);
+        String command = parts[0].toLowerCase();
+        String argument = parts.length > 1 ? parts[1] : null;
+
+        if (command.equals("total"))
+        {
+            return Long.toString(analysis.sumWords());
+        }
+        else if (command.equals("unique"))
+        {
+            return Integer.toString(analysis.getNumberOfUniqueWords());
+        }
+        else if (command.equals("top"))
+        {
+            return wordsToJson(analysis.topWords(number(argument)));
+        }
+        else if (command.equals("find"))
+        {
+            return Integer.toString(analysis.frequencyOf(text(argument).toLowerCase()));
+        }
+        else if (command.equals("prefix"))
+        {
+            return wordsToJson(analysis.findWordsStartingWith(text(argument).toLowerCase()));
+        }
+        else if (command.equals("percent"))
+        {
+            long total = analysis.sumWords();
+            long top = analysis.sumMostFrequentWords(number(argument));
+            return Double.toString(total == 0 ? 0.0 : top * 100.0 / total);
+        }
+        else if (command.equals("cover"))
+        {
+            return Integer.toString(analysis.wordsToCover(percentage(argument)));
+        }
+        throw new IllegalArgumentException("Unknown query \"" + command + "\".");
+    }
+
+    /**
+     * Checks that a query was given an argument.
+     *
+     * @param argument  the text after the command, or null
+     * @return          the argument
+     * @throws IllegalArgumentException there is no argument
+     */
+    private static String text(String argument)
+    {
+        if (argument == null)
+        {
+            throw new IllegalArgumentException("The query needs an argument.");
+        }
+        return argument;
+    }
+
+    /**
+     * Reads a whole number argument.
+     *
+     * @param argument  the text after the command, or null
+     * @return          the number
+     * @throws IllegalArgumentException the argument is not a whole number
+     *                                  of at least 0
+     */
+    private static int number(String argument)
+    {
+        try
+        {
+            int n = Integer.parseInt(text(argument));
+            if (n >= 0)
+            {
+                return n;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a whole number of at least 0.");
+    }
+
+    /**
+     * Reads a percentage argument.
+     *
+     * @param argument  the text after the command, or null
+     * @return          the percentage
+     * @throws IllegalArgumentException the argument is not a number from
+     *                                  0 to 100
+     */
+    private static double percentage(String argument)
+    {
+        try
+        {
+            double percent = Double.parseDouble(text(argument));
+            // written this way round so that NaN is rejected too
+            if (percent >= 0 && percent <= 100)
+            {
+                return percent;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // reported below
+        }
+        throw new IllegalArgumentException("Expected a percentage from 0 to 100.");
+    }
+
+    /**
+     * Writes a list of words as a JSON array of objects.
+     *
+     * @param list  the words
+     * @return      the JSON array
+     */
+    static String wordsToJson(List<Word> list)
+    {
+        StringBuilder json = new StringBuilder("[");
+        for (int index = 0; index < list.size(); index++)
+        {
+            if (index > 0)
+            {
+                json.append(',');
+            }
+            json.append("{\"word\":");
+            appendString(json, list.get(index).getWord());
+            json.append(",\"frequency\":").append(list.get(index).getFrequency()).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Appends text as a quoted JSON string.
+     *
+     * @param json  where the string is appended
+     * @param text  the text to be quoted
+     */
+    static void appendString(StringBuilder json, String text)
+    {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                json.append('\\').append(c);
+            }
+            else if (c < 0x20)
+            {
+                json.append(String.format("\\u%04x", (int)c));
+            }
+            else
+            {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Entry point into BatchQueries.  The arguments are the book, the
+     * file of queries and, optionally, the file the answers are written
+     * to; without it, the answers go to standard output.
+     *
+     * @param  args         the book, the queries and the answers file
+     * @throws IOException  if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 2)
+        {
+            System.err.println("Usage: java BatchQueries book queries [answers]");
+            return;
+        }
+
+        WordAnalysis analysis = new WordAnalysis(args[0], IngestMode.MAPPED);
+        BufferedReader in = new BufferedReader(new FileReader(args[1]));
+        Writer out;
+        if (args.length > 2)
+        {
+            out = new BufferedWriter(new FileWriter(args[2]), 64 * 1024);
+        }
+        else
+        {
+            out = new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024);
+        }
+        try
+        {
+            new BatchQueries(analysis).run(in, out);
+        }
+        finally
+        {
+            in.close();
+            if (args.length > 2)
+            {
+                out.close();
+            }
+            else
+            {
+                out.flush();
+            }
+        }
+    }
+}
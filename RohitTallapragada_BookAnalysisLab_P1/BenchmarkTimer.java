@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Times a piece of work for the quick benchmark mains: IngestBenchmark,
+ * SortBenchmark and HotPathBenchmark.  They run from BlueJ or plain javac;
+ * the JMH benchmarks in the benchmarks module, built with Maven, measure
+ * the same hot paths more carefully.
+ *
+ * The work is called some number of times to warm up, and those results
+ * are thrown away, then some number of times to be measured.  Any set-up
+ * a call needs is done before it and is not timed.  For each measured
+ * call the time it took and the bytes the current thread allocated are
+ * taken, and the results give the best and mean times, the standard
+ * deviation of the times and the mean bytes allocated.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class BenchmarkTimer
+{
+    // results are added in here so the work cannot be optimized away
+    private static volatile long sink;
+
+    // instance variables
+    private int warmups;        // calls made before measuring
+    private int calls;          // calls measured
+    private long probeBytes;    // bytes allocated by allocatedBytes itself
+
+    /**
+     * Constructor for a timer.
+     *
+     * @param warmups  the number of calls made before measuring
+     * @param calls    the number of calls measured, at least one
+     */
+    public BenchmarkTimer(int warmups, int calls)
+    {
+        if (calls < 1)
+        {
+            throw new IllegalArgumentException("At least one call has to be measured.");
+        }
+        this.warmups = warmups;
+        this.calls = calls;
+
+        probeBytes = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++)
+        {
+            long before = allocatedBytes();
+            probeBytes = Math.min(probeBytes, allocatedBytes() - before);
+        }
+    }
+
+    /**
+     * Times a piece of work that needs no set-up.
+     *
+     * @param work  the work to be timed
+     * @return      the times and allocations of the measured calls
+     * @throws IOException the work cannot read its book
+     */
+    public Result time(Work work) throws IOException
+    {
+        return time(null, work);
+    }
+
+    /**
+     * Times a piece of work, doing its set-up before every call.
+     *
+     * @param setUp  the set-up, which is not timed; may be null
+     * @param work   the work to be timed
+     * @return       the times and allocations of the measured calls
+     * @throws IOException the set-up or the work cannot read its book
+     */
+    public Result time(Work setUp, Work work) throws IOException
+    {
+        long result = 0;
+        for (int call = 0; call < warmups; call++)
+        {
+            if (setUp != null)
+            {
+                setUp.run();
+            }
+            result += work.run();
+        }
+
+        long[] nanos = new long[calls];
+        long bytes = 0;
+        for (int call = 0; call < calls; call++)
+        {
+            if (setUp != null)
+            {
+                setUp.run();
+            }
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            result += work.run();
+            nanos[call] = System.nanoTime() - start;
+            bytes += Math.max(0, allocatedBytes() - allocated - probeBytes);
+        }
+        sink += result;
+        return new Result(nanos, bytes);
+    }
+
+    /**
+     * Retrieve how many bytes the current thread has allocated so far.
+     *
+     * @return the bytes allocated, or 0 if the JVM does not track them
+     */
+    public static long allocatedBytes()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean)
+        {
+            return ((com.sun.management.ThreadMXBean)bean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    /**
+     * A piece of work, or its set-up.
+     */
+    public interface Work
+    {
+        /**
+         * Does the work.
+         *
+         * @return a value depending on the work, so it cannot be skipped
+         * @throws IOException a book cannot be read
+         */
+        long run() throws IOException;
+    }
+
+    /**
+     * The times and allocations of the measured calls.
+     */
+    public static class Result
+    {
+        // instance variables
+        private long best;          // shortest time, in nanoseconds
+        private double mean;        // mean time, in nanoseconds
+        private double deviation;   // standard deviation of the times
+        private double bytes;       // mean bytes allocated per call
+
+        /**
+         * Constructor for the results of some calls.
+         *
+         * @param nanos  how long each call took, in nanoseconds
+         * @param total  the bytes allocated by all the calls
+         */
+        private Result(long[] nanos, long total)
+        {
+            best = Long.MAX_VALUE;
+            for (long time : nanos)
+            {
+                best = Math.min(best, time);
+                mean += time;
+            }
+            mean /= nanos.length;
+            for (long time : nanos)
+            {
+                deviation += (time - mean) * (time - mean);
+            }
+            deviation = nanos.length > 1 ? Math.sqrt(deviation / (nanos.length - 1)) : 0;
+            bytes = (double)total / nanos.length;
+        }
+
+        /**
+         * Retrieve the shortest time of a call.
+         *
+         * @return the best time, in milliseconds
+         */
+        public double getBestMillis()
+        {
+            return best / 1e6;
+        }
+
+        /**
+         * Retrieve the mean time of a call.
+         *
+         * @return the mean time, in milliseconds
+         */
+        public double getMeanMillis()
+        {
+            return mean / 1e6;
+        }
+
+        /**
+         * Retrieve the standard deviation of the times of the calls.
+         *
+         * @return the standard deviation, in milliseconds
+         */
+        public double getDeviationMillis()
+        {
+            return deviation / 1e6;
+        }
+
+        /**
+         * Retrieve the mean number of bytes allocated by a call.
+         *
+         * @return the bytes allocated per call
+         */
+        public double getBytesPerCall()
+        {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,358 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the words of a file that keeps growing, reading only the bytes
+ * added since it last looked.
+ *
+ * The file may end in the middle of a word, so the last piece of text
+ * after the last white space is counted only provisionally: the next
+ * time the file is read, that word is uncounted and read again together
+ * with whatever was added after it.  White space is whatever the
+ * WordTokenizer splits words at, including white space outside ASCII.
+ * If the file has become shorter, it is assumed to have been replaced and
+ * is counted again from the start.
+ *
+ * awaitChange keeps a WatchService on the file's directory once it has
+ * been called; close releases it.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class BookFollower implements Closeable
+{
+    // size of the blocks read when looking for white space
+    private static final int PROBE_SIZE = 4096;
+
+    // instance variables
+    private Path file;              // the file being followed
+    private WordCountTable counts;  // where the words are counted
+    private long wordStart;         // where the unfinished last word starts
+    private long consumed;          // how many bytes have been read
+    private String tailWord;        // the provisional last word, or null
+    private boolean reset;          // whether the last readNew started over
+    private WatchService watcher;   // watches the file's directory, or null
+
+    /**
+     * Constructor for a follower that counts the words of a file in counts.
+     * Nothing is read until readNew is called.
+     *
+     * @param fileName  the pathname of the file
+     * @param counts    where the words are counted
+     */
+    public BookFollower(String fileName, WordCountTable counts)
+    {
+        file = Paths.get(fileName);
+        this.counts = counts;
+    }
+
+    /**
+     * Retrieve how many bytes of the file have been read.
+     *
+     * @return the number of bytes read
+     */
+    public long getConsumed()
+    {
+        return consumed;
+    }
+
+    /**
+     * Retrieve whether the last readNew found the file shorter than
+     * before and cleared the counts.  The counts have then changed even
+     * if readNew read no new bytes, as when the file was emptied.
+     *
+     * @return true if the counts were cleared; otherwise, false
+     */
+    public boolean wasReset()
+    {
+        return reset;
+    }
+
+    /**
+     * Reads and counts whatever has been added to the file since it was
+     * last read.
+     *
+     * @return             the number of new bytes read; 0 if the file has
+     *                     not grown
+     * @throws IOException the file cannot be read
+     */
+    public long readNew() throws IOException
+    {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            long size = channel.size();
+            reset = size < consumed;
+            if (reset)
+            {
+                // the file has been replaced by a shorter one
+                counts.clear();
+                wordStart = 0;
+                consumed = 0;
+                tailWord = null;
+            }
+            if (size == consumed)
+            {
+                return 0;
+            }
+
+            if (tailWord != null)
+            {
+                counts.remove(tailWord);
+                tailWord = null;
+            }
+            long boundary = lastWordStart(channel, wordStart, size);
+
+            // every word before boundary is complete
+            WordTokenizer tokenizer = new WordTokenizer(counts);
+            tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY,
+                wordStart, boundary - wordStart));
+            tokenizer.finish();
+
+            // the word after it may still be growing
+            TailSink tail = new TailSink();
+            tokenizer = new WordTokenizer(tail);
+            tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY,
+                boundary, size - boundary));
+            tokenizer.finish();
+            if (tail.word != null)
+            {
+                counts.add(tail.word);
+                tailWord = tail.word;
+            }
+
+            long added = size - consumed;
+            wordStart = boundary;
+            consumed = size;
+            return added;
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Waits until the file's size differs from the number of bytes read,
+     * or until the time runs out.  The directory of the file is watched
+     * from the first call until close, so a change made between calls is
+     * not missed; the size is also looked at before waiting, for a change
+     * made before the first call.  Events for other files in the
+     * directory only make it look at the size again.
+     *
+     * @param timeoutMillis  the longest time to wait, in milliseconds
+     * @return               true if the file has grown or become shorter;
+     *                       otherwise, false
+     * @throws IOException   the directory of the file cannot be watched
+     * @throws InterruptedException  the thread is interrupted while waiting
+     */
+    public boolean awaitChange(long timeoutMillis) throws IOException, InterruptedException
+    {
+        if (watcher == null)
+        {
+            WatchService created = FileSystems.getDefault().newWatchService();
+            try
+            {
+                file.toAbsolutePath().getParent().register(created,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            catch (IOException e)
+            {
+                created.close();
+                throw e;
+            }
+            watcher = created;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (!hasChanged())
+        {
+            long left = deadline - System.nanoTime();
+            if (left <= 0)
+            {
+                return false;
+            }
+            WatchKey key = watcher.poll(left, TimeUnit.NANOSECONDS);
+            if (key != null)
+            {
+                key.pollEvents();
+                key.reset();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Stops watching the directory of the file.  awaitChange may still be
+     * called afterwards, and starts watching it again.
+     *
+     * @throws IOException the watch cannot be closed
+     */
+    public void close() throws IOException
+    {
+        if (watcher != null)
+        {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
+    /**
+     * Returns whether the file's size differs from the number of bytes
+     * read.
+     *
+     * @return true if the file has grown or become shorter; false if it
+     *         has not, or does not exist right now
+     * @throws IOException the size of the file cannot be read
+     */
+    private boolean hasChanged() throws IOException
+    {
+        try
+        {
+            return Files.size(file) != consumed;
+        }
+        catch (NoSuchFileException e)
+        {
+            // it may be in the middle of being replaced
+            return false;
+        }
+    }
+
+    /**
+     * Finds the position just after the last white space character
+     * between start and end, which the WordTokenizer would split at.
+     *
+     * @param channel  the open file
+     * @param start    where to stop looking, at the start of a character
+     * @param end      where to start looking, going backwards
+     * @return         the position after the white space, or start if
+     *                 there is none
+     * @throws IOException the file cannot be read
+     */
+    private static long lastWordStart(FileChannel channel, long start, long end)
+        throws IOException
+    {
+        // each block is read with up to three bytes before it, for the
+        // start of a character that ends in the block
+        ByteBuffer probe = ByteBuffer.allocate(PROBE_SIZE + 3);
+        long blockEnd = end;
+        while (blockEnd > start)
+        {
+            long blockStart = Math.max(start, blockEnd - PROBE_SIZE);
+            long readStart = Math.max(start, blockStart - 3);
+            probe.clear();
+            probe.limit((int)(blockEnd - readStart));
+            int read = 0;
+            while (probe.hasRemaining() && read >= 0)
+            {
+                read = channel.read(probe, readStart + probe.position());
+            }
+            for (int i = probe.position() - 1; i >= blockStart - readStart; i--)
+            {
+                if (endsWhiteSpace(probe, i))
+                {
+                    return readStart + i + 1;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        return start;
+    }
+
+    /**
+     * Returns whether a byte is the last byte of a white space character,
+     * decoding UTF-8 the same way the WordTokenizer does.
+     *
+     * @param bytes  the bytes, the first of which starts a character
+     * @param i      the position of the byte
+     * @return       true if a white space character ends there;
+     *               otherwise, false
+     */
+    private static boolean endsWhiteSpace(ByteBuffer bytes, int i)
+    {
+        byte b = bytes.get(i);
+        if (b >= 0)
+        {
+            return WordTokenizer.isWhiteSpace(b);
+        }
+        if ((b & 0xC0) != 0x80)
+        {
+            // the first byte of a character cut short
+            return false;
+        }
+
+        // go back over the other continuation bytes to the first byte
+        for (int back = 1; back <= 3 && i - back >= 0; back++)
+        {
+            byte first = bytes.get(i - back);
+            if ((first & 0xC0) == 0x80)
+            {
+                continue;
+            }
+            int length;
+            int codePoint;
+            if ((first & 0xE0) == 0xC0)
+            {
+                length = 2;
+                codePoint = first & 0x1F;
+            }
+            else if ((first & 0xF0) == 0xE0)
+            {
+                length = 3;
+                codePoint = first & 0x0F;
+            }
+            else if ((first & 0xF8) == 0xF0)
+            {
+                length = 4;
+                codePoint = first & 0x07;
+            }
+            else
+            {
+                return false;
+            }
+            if (length != back + 1)
+            {
+                return false;
+            }
+            for (int j = i - back + 1; j <= i; j++)
+            {
+                codePoint = (codePoint << 6) | (bytes.get(j) & 0x3F);
+            }
+            return WordTokenizer.isWhiteSpace(codePoint);
+        }
+        return false;
+    }
+
+    /**
+     * Keeps the word found in the unfinished end of the file.  The end
+     * holds no white space, so there is at most one.
+     */
+    private static class TailSink implements TokenSink
+    {
+        private String word;    // the word found, or null
+
+        /**
+         * Keeps the word.
+         *
+         * @param text    the characters holding the word
+         * @param offset  the position of the first character of the word
+         * @param length  the number of characters in the word
+         */
+        public void token(char[] text, int offset, int length)
+        {
+            word = new String(text, offset, length);
+        }
+    }
+}
@@ -0,0 +1,573 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The words of a book and their frequencies, stored as columns rather
+ * than as one Word object per word.
+ *
+ * The characters of all the words are packed one after another into a
+ * single byte array, the arena, in lexicographic order.  Two int columns
+ * run alongside:
+ *      offsets[i]      where word i starts in the arena; it ends where
+ *                      word i+1 starts, so there are size()+1 offsets
+ *      frequencies[i]  how often word i appears
+ *
+ * Each word costs its bytes plus eight bytes of columns, instead of the
+ * Word, String and array headers of the list layout.  Word objects are
+ * only made when they are asked for, by toWord, toWords or through
+ * asList, and are not kept.  The most frequent words are found by
+ * scanning the frequency column with a heap of word positions, and the
+ * words with a prefix or in a range by binary searches of the arena, so
+ * none of these queries makes a Word for every word.
+ *
+ * Words are stored as UTF-8.  WordTokenizer and cleanUp only produce
+ * ASCII words, for which UTF-8 order is the same as String order.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ColumnarWordStore
+{
+    // instance variables
+    private byte[] arena;
+    private int[] offsets;
+    private int[] frequencies;
+    private long total;         // total of all the frequencies
+
+    /**
+     * Constructor for a store of the given words.
+     *
+     * @param sorted  the words, in lexicographic order with no repeats
+     */
+    public ColumnarWordStore(List<Word> sorted)
+    {
+        String[] words = new String[sorted.size()];
+        int[] counts = new int[sorted.size()];
+        for (int i = 0; i < words.length; i++)
+        {
+            words[i] = sorted.get(i).getWord();
+            counts[i] = sorted.get(i).getFrequency();
+        }
+        fill(words, counts);
+    }
+
+    /**
+     * Constructor for a store of words already split into two arrays.
+     *
+     * @param sorted  the words, in lexicographic order with no repeats
+     * @param counts  the frequency of each word
+     */
+    ColumnarWordStore(String[] sorted, int[] counts)
+    {
+        fill(sorted, counts);
+    }
+
+    /**
+     * Packs the words into the arena and fills in the columns.
+     *
+     * @param sorted  the words, in lexicographic order with no repeats
+     * @param counts  the frequency of each word
+     */
+    private void fill(String[] sorted, int[] counts)
+    {
+        byte[][] encoded = new byte[sorted.length][];
+        long bytes = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            encoded[i] = sorted[i].getBytes(StandardCharsets.UTF_8);
+            bytes += encoded[i].length;
+        }
+        if (bytes > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The words do not fit in one arena.");
+        }
+
+        arena = new byte[(int)bytes];
+        offsets = new int[sorted.length + 1];
+        frequencies = counts.clone();
+        int next = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            offsets[i] = next;
+            System.arraycopy(encoded[i], 0, arena, next, encoded[i].length);
+            next += encoded[i].length;
+            total += counts[i];
+        }
+        offsets[sorted.length] = next;
+    }
+
+    /**
+     * Retrieve the number of words in the store.
+     *
+     * @return the number of different words
+     */
+    public int size()
+    {
+        return frequencies.length;
+    }
+
+    /**
+     * Retrieve the total of all the frequencies.
+     *
+     * @return the number of words in the book, with repetitions
+     */
+    public long total()
+    {
+        return total;
+    }
+
+    /**
+     * Retrieve the word at a position in lexicographic order.
+     *
+     * @param index  the position of the word
+     * @return       the text of the word
+     */
+    public String getWord(int index)
+    {
+        return new String(arena, offsets[index], offsets[index + 1] - offsets[index],
+            StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieve the frequency of the word at a position in lexicographic order.
+     *
+     * @param index  the position of the word
+     * @return       how often the word appears
+     */
+    public int getFrequency(int index)
+    {
+        return frequencies[index];
+    }
+
+    /**
+     * Makes a Word for the word at a position in lexicographic order.
+     * The Word is a copy; changing it does not change the store.
+     *
+     * @param index  the position of the word
+     * @return       the word and its frequency
+     */
+    public Word toWord(int index)
+    {
+        return new Word(getWord(index), frequencies[index]);
+    }
+
+    /**
+     * Finds the position of a word with a binary search, comparing its
+     * bytes with the arena without making any Strings.
+     *
+     * @param word  the word to be found
+     * @return      its position in lexicographic order, or -1 if it is
+     *              not in the store
+     */
+    public int find(String word)
+    {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = frequencies.length - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int compare = compareAt(mid, key);
+            if (compare == 0)
+            {
+                return mid;
+            }
+            if (compare > 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds how often a word appears.
+     *
+     * @param word  the word of interest
+     * @return      how often it appears; 0 if it is not in the store
+     */
+    public int frequencyOf(String word)
+    {
+        int index = find(word);
+        return index < 0 ? 0 : frequencies[index];
+    }
+
+    /**
+     * Makes Words for the words from one position up to, but not
+     * including, another.
+     *
+     * @param from  the position of the first word
+     * @param to    the position just past the last word
+     * @return      the words and their frequencies, in lexicographic order
+     */
+    public ArrayList<Word> toWords(int from, int to)
+    {
+        ArrayList<Word> list = new ArrayList<Word>(Math.max(0, to - from));
+        for (int index = from; index < to; index++)
+        {
+            list.add(toWord(index));
+        }
+        return list;
+    }
+
+    /**
+     * Finds the position of the first word that does not come before a
+     * given word, with a binary search of the arena.
+     *
+     * @param word  the word to be compared with
+     * @return      the position of the first word at or after word, or
+     *              size() if there is none
+     */
+    public int firstFrom(String word)
+    {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = frequencies.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (compareAt(mid, key) < 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the position just past the last word that starts with a
+     * prefix, with a binary search of the arena.  The words with the
+     * prefix run from firstFrom(prefix) up to this position.
+     *
+     * @param prefix  the characters the words start with
+     * @return        the position after the last word with the prefix
+     */
+    public int endOfPrefix(String prefix)
+    {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = frequencies.length;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (comparePrefixAt(mid, key) <= 0)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the positions of the k most frequent words, keeping a heap
+     * of at most k positions while the frequency column is scanned, so
+     * this takes O(n log k) time.  Words with the same frequency are
+     * ranked lexicographically, which is the order of their positions.
+     *
+     * @param k  the number of words wanted
+     * @return   the positions of the k most frequent words (or of all the
+     *           words, if there are fewer than k), most frequent first
+     */
+    public int[] mostFrequent(int k)
+    {
+        k = Math.max(0, Math.min(k, frequencies.length));
+        // a heap whose head is the lowest ranked of the words kept
+        int[] heap = new int[k];
+        int size = 0;
+        for (int index = 0; index < frequencies.length && k > 0; index++)
+        {
+            if (size < k)
+            {
+                heap[size] = index;
+                siftUp(heap, size);
+                size++;
+            }
+            else if (ranksBelow(heap[0], index))
+            {
+                heap[0] = index;
+                siftDown(heap, size);
+            }
+        }
+
+        // taking the lowest ranked out each time fills the array from
+        // its end
+        int[] top = new int[size];
+        while (size > 0)
+        {
+            top[size - 1] = heap[0];
+            size--;
+            heap[0] = heap[size];
+            siftDown(heap, size);
+        }
+        return top;
+    }
+
+    /**
+     * Adds up the frequencies of the k most frequent words.
+     *
+     * @param k  the number of words to be added up
+     * @return   how many times the k most frequent words occur
+     */
+    public long sumMostFrequent(int k)
+    {
+        if (k >= frequencies.length)
+        {
+            return total;
+        }
+        long sum = 0;
+        for (int index : mostFrequent(k))
+        {
+            sum += frequencies[index];
+        }
+        return sum;
+    }
+
+    /**
+     * Determines the fewest of the most frequent words that together
+     * make up at least the given percentage of all the words.  A sorted
+     * copy of the frequency column is made, used and dropped.
+     *
+     * @param percent  the percentage to be covered, from 0 to 100
+     * @return         the number of most frequent words needed
+     */
+    public int wordsToCover(double percent)
+    {
+        int[] sorted = frequencies.clone();
+        Arrays.sort(sorted);
+        double target = total * percent / 100.0;
+        long sum = 0;
+        int count = 0;
+        while (count < sorted.length && sum < target)
+        {
+            sum += sorted[sorted.length - 1 - count];
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieve a read-only list view of the store, in lexicographic
+     * order.  Each get makes a new Word.
+     *
+     * @return the list view
+     */
+    public List<Word> asList()
+    {
+        return new WordList();
+    }
+
+    /**
+     * Estimates how many bytes of memory the store takes up.
+     *
+     * @return the approximate size of the store in bytes
+     */
+    public long memoryBytes()
+    {
+        // each array has a 16 byte header
+        return 3 * 16 + arena.length + 4L * offsets.length + 4L * frequencies.length;
+    }
+
+    /**
+     * Estimates how many bytes the same words take up as an ArrayList of
+     * Word objects, with compressed references: a 4 byte slot in the
+     * list, a 24 byte Word, a 24 byte String and its byte array.
+     *
+     * @param list  the words
+     * @return      the approximate size of the list in bytes
+     */
+    public static long listMemoryBytes(List<Word> list)
+    {
+        long bytes = 16 + 16 + 4L * list.size();
+        for (int index = 0; index < list.size(); index++)
+        {
+            int characters = list.get(index).getWord().length();
+            bytes += 24 + 24 + ((16 + characters + 7) & ~7);
+        }
+        return bytes;
+    }
+
+    /**
+     * Compares the word at a position with the bytes of another word.
+     *
+     * @param index  the position of the stored word
+     * @param key    the UTF-8 bytes of the other word
+     * @return       < 0, 0 or > 0 as the stored word comes before, is
+     *               equal to, or comes after the other word
+     */
+    private int compareAt(int index, byte[] key)
+    {
+        int start = offsets[index];
+        int length = offsets[index + 1] - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++)
+        {
+            int difference = (arena[start + i] & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0)
+            {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+
+    /**
+     * Compares the word at a position with a prefix, taking every word
+     * that starts with the prefix as equal to it.
+     *
+     * @param index  the position of the stored word
+     * @param key    the UTF-8 bytes of the prefix
+     * @return       < 0, 0 or > 0 as the stored word comes before, starts
+     *               with, or comes after the prefix
+     */
+    private int comparePrefixAt(int index, byte[] key)
+    {
+        int start = offsets[index];
+        int length = offsets[index + 1] - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++)
+        {
+            int difference = (arena[start + i] & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0)
+            {
+                return difference;
+            }
+        }
+        return length < key.length ? -1 : 0;
+    }
+
+    /**
+     * Returns whether one word ranks below another: it is less frequent,
+     * or as frequent and later in lexicographic order.
+     *
+     * @param a  the position of one word
+     * @param b  the position of the other word
+     * @return   true if word a ranks below word b; otherwise, false
+     */
+    private boolean ranksBelow(int a, int b)
+    {
+        return frequencies[a] < frequencies[b] || (frequencies[a] == frequencies[b] && a > b);
+    }
+
+    /**
+     * Moves the last position of a heap up to its place, the lowest
+     * ranked word being at the head.
+     *
+     * @param heap      the heap of word positions
+     * @param position  where the new word position is
+     */
+    private void siftUp(int[] heap, int position)
+    {
+        while (position > 0)
+        {
+            int parent = (position - 1) / 2;
+            if (!ranksBelow(heap[position], heap[parent]))
+            {
+                return;
+            }
+            int index = heap[parent];
+            heap[parent] = heap[position];
+            heap[position] = index;
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves the first position of a heap down to its place, the lowest
+     * ranked word being at the head.
+     *
+     * @param heap  the heap of word positions
+     * @param size  the number of positions in the heap
+     */
+    private void siftDown(int[] heap, int size)
+    {
+        int position = 0;
+        while (true)
+        {
+            int child = 2 * position + 1;
+            if (child >= size)
+            {
+                return;
+            }
+            if (child + 1 < size && ranksBelow(heap[child + 1], heap[child]))
+            {
+                child++;
+            }
+            if (!ranksBelow(heap[child], heap[position]))
+            {
+                return;
+            }
+            int index = heap[child];
+            heap[child] = heap[position];
+            heap[position] = index;
+            position = child;
+        }
+    }
+
+    /**
+     * The list view returned by asList.
+     */
+    private class WordList extends AbstractList<Word> implements RandomAccess
+    {
+        /**
+         * Makes the Word at a position.
+         *
+         * @param index  the position
+         * @return       a new Word for it
+         */
+        public Word get(int index)
+        {
+            return toWord(index);
+        }
+
+        /**
+         * Retrieve the number of words.
+         *
+         * @return the size of the store
+         */
+        public int size()
+        {
+            return frequencies.length;
+        }
+    }
+
+    /**
+     * Entry point into ColumnarWordStore.  It reads a book and reports
+     * how many bytes each word takes up as a list of Word objects and
+     * as columns.
+     *
+     * @param  args         the name of the book (MobyDick.txt if none is given)
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        WordCountTable counts = new WordCountTable();
+        new MappedBookReader().read(fileName, new WordTokenizer(counts));
+        List<Word> list = counts.toSortedList();
+        ColumnarWordStore store = counts.toColumns();
+
+        System.out.printf("%-10s %10s %12s %14s\n", "Layout", "Words", "Bytes", "Bytes/word");
+        long listBytes = listMemoryBytes(list);
+        System.out.printf("%-10s %10d %12d %14.1f\n", "list", list.size(), listBytes,
+            list.isEmpty() ? 0.0 : (double)listBytes / list.size());
+        System.out.printf("%-10s %10d %12d %14.1f\n", "columnar", store.size(),
+            store.memoryBytes(), store.size() == 0 ? 0.0 : (double)store.memoryBytes() / store.size());
+    }
+}
@@ -0,0 +1,524 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Remembers where every word of a book appears, for showing each word in
+ * its context and for finding two-word phrases.
+ *
+ * Positions count words from the start of the book: the first word is at
+ * position 0.  Each different word gets a dense int ID from a WordIdTable,
+ * and the index keeps:
+ *      the book as a list of word IDs, one per position, for the words
+ *      around a position
+ *      a postings list for each word, the positions where it appears in
+ *      increasing order
+ *
+ * A postings list is stored as the gaps between one position and the
+ * next, the first gap being from -1, each written as a varint: seven
+ * bits per byte, low bits first, with the high bit set on every byte but
+ * the last.  Frequent words have small gaps that take one byte each.
+ * While words are being added, each list has its own growing array; the
+ * first query packs them all into one array, and words added after that
+ * unpack them again.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ConcordanceIndex implements TokenSink
+{
+    // instance variables
+    private WordIdTable words;       // the ID of each word
+    private int[] text;              // the word ID at each position
+    private int length;              // number of positions
+    private int[] counts;            // how often each word appears
+    private int[] lastPosition;      // where each word last appeared
+
+    // the postings while words are being added: lists[id] holds
+    // listLengths[id] bytes
+    private byte[][] lists;
+    private int[] listLengths;
+
+    // the postings once packed: the list of word id runs from
+    // starts[id] up to starts[id + 1] in packed
+    private byte[] packed;
+    private int[] starts;
+
+    /**
+     * Constructor for an empty index.
+     */
+    public ConcordanceIndex()
+    {
+        words = new WordIdTable();
+        text = new int[1 << 16];
+        counts = new int[1 << 11];
+        lastPosition = new int[counts.length];
+        lists = new byte[counts.length][];
+        listLengths = new int[counts.length];
+    }
+
+    /**
+     * Constructor for an index of a book.
+     *
+     * @param  fileName     the name of the text of the book
+     * @throws IOException  file is not found
+     */
+    public ConcordanceIndex(String fileName) throws IOException
+    {
+        this();
+        new MappedBookReader().read(fileName, new WordTokenizer(this));
+    }
+
+    /**
+     * Adds a word found by a WordTokenizer at the next position.
+     *
+     * @param chars   the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param count   the number of characters in the word
+     */
+    public void token(char[] chars, int offset, int count)
+    {
+        if (packed != null)
+        {
+            unpack();
+        }
+        int id = words.add(chars, offset, count);
+        if (id == counts.length)
+        {
+            int capacity = counts.length * 2;
+            counts = Arrays.copyOf(counts, capacity);
+            lastPosition = Arrays.copyOf(lastPosition, capacity);
+            lists = Arrays.copyOf(lists, capacity);
+            listLengths = Arrays.copyOf(listLengths, capacity);
+        }
+        if (length == text.length)
+        {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+
+        int gap = counts[id] == 0 ? length + 1 : length - lastPosition[id];
+        if (lists[id] == null)
+        {
+            lists[id] = new byte[5];
+        }
+        // a varint of an int takes up to five bytes
+        if (listLengths[id] + 5 > lists[id].length)
+        {
+            lists[id] = Arrays.copyOf(lists[id], lists[id].length * 2);
+        }
+        listLengths[id] = writeVarint(lists[id], listLengths[id], gap);
+        counts[id]++;
+        lastPosition[id] = length;
+        text[length] = id;
+        length++;
+    }
+
+    /**
+     * Adds a word at the next position.
+     *
+     * @param word  the next word of the book
+     */
+    public void add(String word)
+    {
+        token(word.toCharArray(), 0, word.length());
+    }
+
+    /**
+     * Determines how many words, in total, have been indexed.
+     *
+     * @return the number of positions
+     */
+    public int sumWords()
+    {
+        return length;
+    }
+
+    /**
+     * Retrieve the number of different words.
+     *
+     * @return the number of different words
+     */
+    public int getNumberOfUniqueWords()
+    {
+        return words.size();
+    }
+
+    /**
+     * Retrieve the word at a position.
+     *
+     * @param position  the position, from 0 up to sumWords()
+     * @return          the word there
+     */
+    public String getWord(int position)
+    {
+        if (position < 0 || position >= length)
+        {
+            throw new IndexOutOfBoundsException("No word at position " + position + ".");
+        }
+        return words.getWord(text[position]);
+    }
+
+    /**
+     * Finds how often a word appears.
+     *
+     * @param word  the word of interest
+     * @return      how often it appears; 0 if it does not
+     */
+    public int frequencyOf(String word)
+    {
+        int id = words.find(word);
+        return id < 0 ? 0 : counts[id];
+    }
+
+    /**
+     * Finds every position where a word appears.
+     *
+     * @param word  the word of interest
+     * @return      its positions, in increasing order; empty if it does
+     *              not appear
+     */
+    public int[] positionsOf(String word)
+    {
+        int id = words.find(word);
+        if (id < 0)
+        {
+            return new int[0];
+        }
+        pack();
+        int[] positions = new int[counts[id]];
+        int at = starts[id];
+        int position = -1;
+        for (int i = 0; i < positions.length; i++)
+        {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do
+            {
+                b = packed[at++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            position += gap;
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * Finds every position where one word is followed straight away by
+     * another, by walking the postings lists of the two words together.
+     *
+     * @param first   the first word of the phrase
+     * @param second  the second word of the phrase
+     * @return        the positions of the first word of each occurrence,
+     *                in increasing order; empty if the phrase does not
+     *                appear
+     */
+    public int[] phrasePositions(String first, String second)
+    {
+        int[] left = positionsOf(first);
+        int[] right = positionsOf(second);
+        int[] found = new int[Math.min(left.length, right.length)];
+        int size = 0;
+        int j = 0;
+        for (int i = 0; i < left.length && j < right.length; i++)
+        {
+            while (j < right.length && right[j] <= left[i])
+            {
+                j++;
+            }
+            if (j < right.length && right[j] == left[i] + 1)
+            {
+                found[size] = left[i];
+                size++;
+            }
+        }
+        return Arrays.copyOf(found, size);
+    }
+
+    /**
+     * Finds how often a two-word phrase appears.
+     *
+     * @param phrase  the two words, separated by spaces
+     * @return        how often the phrase appears; 0 if it does not, or
+     *                if it is not two words
+     */
+    public int phraseFrequency(String phrase)
+    {
+        String[] parts = phrase.trim().split(" +");
+        if (parts.length != 2)
+        {
+            return 0;
+        }
+        return phrasePositions(parts[0], parts[1]).length;
+    }
+
+    /**
+     * Builds a keyword-in-context line for every occurrence of a word:
+     * the word in brackets, with up to context words on each side.
+     *
+     * @param word     the word of interest
+     * @param context  how many words to show on each side
+     * @return         one line per occurrence, in the order they appear
+     */
+    public ArrayList<String> concordance(String word, int context)
+    {
+        int[] positions = positionsOf(word);
+        ArrayList<String> lines = new ArrayList<String>(positions.length);
+        for (int position : positions)
+        {
+            lines.add(contextLine(position, 1, context));
+        }
+        return lines;
+    }
+
+    /**
+     * Prints a keyword-in-context line for every occurrence of a word,
+     * with the words before it lined up on the right so the word itself
+     * is in the same column on every line.
+     *
+     * @param word     the word of interest
+     * @param context  how many words to show on each side
+     */
+    public void printConcordance(String word, int context)
+    {
+        int[] positions = positionsOf(word);
+        String[] before = new String[positions.length];
+        int width = 0;
+        for (int i = 0; i < positions.length; i++)
+        {
+            before[i] = joinWords(Math.max(0, positions[i] - context), positions[i]);
+            width = Math.max(width, before[i].length());
+        }
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < positions.length; i++)
+        {
+            for (int pad = before[i].length(); pad < width; pad++)
+            {
+                out.append(' ');
+            }
+            out.append(before[i]).append(width > 0 ? " [" : "[").append(word).append("] ")
+               .append(joinWords(positions[i] + 1,
+                   (int)Math.min(length, (long)positions[i] + 1 + context)))
+               .append('\n');
+        }
+        System.out.print(out);
+    }
+
+    /**
+     * Builds a keyword-in-context line for every occurrence of a two-word
+     * phrase.
+     *
+     * @param phrase   the two words, separated by spaces
+     * @param context  how many words to show on each side
+     * @return         one line per occurrence, in the order they appear
+     */
+    public ArrayList<String> phraseConcordance(String phrase, int context)
+    {
+        ArrayList<String> lines = new ArrayList<String>();
+        String[] parts = phrase.trim().split(" +");
+        if (parts.length != 2)
+        {
+            return lines;
+        }
+        for (int position : phrasePositions(parts[0], parts[1]))
+        {
+            lines.add(contextLine(position, 2, context));
+        }
+        return lines;
+    }
+
+    /**
+     * Estimates how many bytes of memory the index takes up, including
+     * the words.
+     *
+     * @return the approximate size of the index in bytes
+     */
+    public long memoryBytes()
+    {
+        long bytes = words.memoryBytes() + 3 * 16 + 4L * text.length + 4L * counts.length
+            + 4L * lastPosition.length;
+        if (packed != null)
+        {
+            bytes += 2 * 16 + packed.length + 4L * starts.length;
+        }
+        else
+        {
+            bytes += 2 * 16 + 4L * lists.length + 4L * listLengths.length;
+            for (int id = 0; id < words.size(); id++)
+            {
+                bytes += 16 + lists[id].length;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Retrieve how many bytes the postings take up once packed.
+     *
+     * @return the size of the packed postings in bytes
+     */
+    public long postingsBytes()
+    {
+        pack();
+        return packed.length;
+    }
+
+    /**
+     * Builds the line for the words from position to position + span - 1,
+     * in brackets, with up to context words on each side.
+     *
+     * @param position  the position of the first word in brackets
+     * @param span      the number of words in brackets
+     * @param context   how many words to show on each side
+     * @return          the line
+     */
+    private String contextLine(int position, int span, int context)
+    {
+        StringBuilder line = new StringBuilder();
+        String before = joinWords(Math.max(0, position - context), position);
+        if (before.length() > 0)
+        {
+            line.append(before).append(' ');
+        }
+        line.append('[').append(joinWords(position, position + span)).append(']');
+        int end = (int)Math.min(length, (long)position + span + context);
+        if (position + span < end)
+        {
+            line.append(' ').append(joinWords(position + span, end));
+        }
+        return line.toString();
+    }
+
+    /**
+     * Joins the words from one position up to another with spaces.
+     *
+     * @param from  the position of the first word
+     * @param to    the position after the last word
+     * @return      the words
+     */
+    private String joinWords(int from, int to)
+    {
+        StringBuilder joined = new StringBuilder();
+        for (int position = from; position < to; position++)
+        {
+            if (position > from)
+            {
+                joined.append(' ');
+            }
+            joined.append(words.getWord(text[position]));
+        }
+        return joined.toString();
+    }
+
+    /**
+     * Packs every postings list into one array, unless they already are,
+     * and trims the list of word IDs to its length.
+     */
+    private void pack()
+    {
+        if (packed != null)
+        {
+            return;
+        }
+        int n = words.size();
+        starts = new int[n + 1];
+        long bytes = 0;
+        for (int id = 0; id < n; id++)
+        {
+            starts[id] = (int)bytes;
+            bytes += listLengths[id];
+            if (bytes > Integer.MAX_VALUE)
+            {
+                throw new IllegalStateException("The postings do not fit in one array.");
+            }
+        }
+        starts[n] = (int)bytes;
+        packed = new byte[(int)bytes];
+        for (int id = 0; id < n; id++)
+        {
+            System.arraycopy(lists[id], 0, packed, starts[id], listLengths[id]);
+            lists[id] = null;
+        }
+        text = Arrays.copyOf(text, Math.max(1, length));
+    }
+
+    /**
+     * Gives every postings list its own array again, so more words can
+     * be added.
+     */
+    private void unpack()
+    {
+        for (int id = 0; id < words.size(); id++)
+        {
+            // room for one more varint, the most the next add can need
+            lists[id] = new byte[listLengths[id] + 5];
+            System.arraycopy(packed, starts[id], lists[id], 0, listLengths[id]);
+        }
+        packed = null;
+        starts = null;
+    }
+
+    /**
+     * Writes a number as a varint.
+     *
+     * @param bytes  where it is written
+     * @param at     the position of its first byte
+     * @param value  the number, which is not negative
+     * @return       the position after its last byte
+     */
+    private static int writeVarint(byte[] bytes, int at, int value)
+    {
+        while ((value & ~0x7F) != 0)
+        {
+            bytes[at++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[at++] = (byte)value;
+        return at;
+    }
+
+    /**
+     * Entry point into ConcordanceIndex.  It indexes a book, reports how
+     * big the index is, and shows a word or a two-word phrase in context.
+     *
+     * @param  args         the name of the book (MobyDick.txt if none is
+     *                      given), a word or a two-word phrase in quotes
+     *                      ("white whale" if none is given), and how many
+     *                      words of context to show (5 if none is given)
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        String query = args.length > 1 ? args[1] : "white whale";
+        int context = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        long start = System.nanoTime();
+        ConcordanceIndex index = new ConcordanceIndex(fileName);
+        long millis = (System.nanoTime() - start) / 1000000;
+        long fileBytes = new File(fileName).length();
+        System.out.println(index.sumWords() + " words indexed in " + millis + " ms; postings "
+            + index.postingsBytes() + " bytes, whole index about " + index.memoryBytes()
+            + " bytes, for a " + fileBytes + " byte book");
+
+        String[] parts = query.trim().split(" +");
+        if (parts.length == 2)
+        {
+            System.out.println("\"" + query + "\" appears " + index.phraseFrequency(query)
+                + " times");
+            for (String line : index.phraseConcordance(query, context))
+            {
+                System.out.println(line);
+            }
+        }
+        else
+        {
+            System.out.println("\"" + query + "\" appears " + index.frequencyOf(query)
+                + " times");
+            index.printConcordance(query, context);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counts words pushed in by several threads at the same time.
+ *
+ * The words are spread over a number of stripes, each a WordCountTable
+ * with its own lock, chosen by the word's hash code.  Two threads only
+ * wait for each other when they count words of the same stripe at the
+ * same moment, and counting a word already in its stripe creates no
+ * objects.  The total is kept in a LongAdder, which threads update
+ * without waiting at all.
+ *
+ * Each producing thread should feed its own WordTokenizer, made with
+ * this counter as its sink; a tokenizer itself is not thread-safe.
+ * Threads that count large batches can also count them in a private
+ * WordCountTable first and push it in with addAll.
+ *
+ * freeze returns an ordinary WordAnalysis of the words counted so far,
+ * while counting goes on.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ConcurrentWordCounter implements TokenSink
+{
+    // instance variables
+    private WordCountTable[] stripes;
+    private ReentrantLock[] locks;      // locks[i] guards stripes[i]
+    private int shift;                  // 32 less the number of stripe bits
+    private LongAdder total;            // words counted, with repetitions
+
+    /**
+     * Constructor for a counter with enough stripes for the processors
+     * of this machine.
+     */
+    public ConcurrentWordCounter()
+    {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for a counter with about the given number of stripes.
+     *
+     * @param concurrency  how many stripes to use; rounded up to a power
+     *                     of two
+     */
+    public ConcurrentWordCounter(int concurrency)
+    {
+        int bits = 0;
+        while ((1 << bits) < concurrency && bits < 12)
+        {
+            bits++;
+        }
+        stripes = new WordCountTable[1 << bits];
+        locks = new ReentrantLock[stripes.length];
+        for (int i = 0; i < stripes.length; i++)
+        {
+            stripes[i] = new WordCountTable(256);
+            locks[i] = new ReentrantLock();
+        }
+        shift = 32 - bits;
+        total = new LongAdder();
+    }
+
+    /**
+     * Counts a word found by a WordTokenizer.  May be called by any
+     * number of threads at once.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    public void token(char[] text, int offset, int length)
+    {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = 31 * hash + text[i];
+        }
+        int stripe = stripeFor(hash);
+        locks[stripe].lock();
+        try
+        {
+            stripes[stripe].add(text, offset, length);
+        }
+        finally
+        {
+            locks[stripe].unlock();
+        }
+        total.increment();
+    }
+
+    /**
+     * Counts a word.  May be called by any number of threads at once.
+     *
+     * @param word  the word to be counted
+     */
+    public void add(String word)
+    {
+        int stripe = stripeFor(word.hashCode());
+        locks[stripe].lock();
+        try
+        {
+            stripes[stripe].add(word);
+        }
+        finally
+        {
+            locks[stripe].unlock();
+        }
+        total.increment();
+    }
+
+    /**
+     * Adds every count of a table.  May be called by any number of
+     * threads at once; the table must not be changed while it is added.
+     *
+     * @param other  the words to be added, with their counts
+     */
+    public void addAll(WordCountTable other)
+    {
+        for (int slot = 0; slot < other.capacity(); slot++)
+        {
+            String word = other.wordAt(slot);
+            if (word == null)
+            {
+                continue;
+            }
+            int stripe = stripeFor(word.hashCode());
+            locks[stripe].lock();
+            try
+            {
+                stripes[stripe].add(word, other.countAt(slot));
+            }
+            finally
+            {
+                locks[stripe].unlock();
+            }
+        }
+        total.add(other.total());
+    }
+
+    /**
+     * Retrieve how many words have been counted so far, with repetitions.
+     * While other threads are counting, this may miss their latest words.
+     *
+     * @return the number of words counted
+     */
+    public long total()
+    {
+        return total.sum();
+    }
+
+    /**
+     * Takes a copy of the counts so far as a WordAnalysis.  Every stripe
+     * is locked while it is copied, so the copy holds each word's count
+     * as of one moment; counting can go on afterwards without changing
+     * the copy.
+     *
+     * @return an analysis of the words counted so far
+     */
+    public WordAnalysis freeze()
+    {
+        WordCountTable merged = new WordCountTable();
+        for (ReentrantLock lock : locks)
+        {
+            lock.lock();
+        }
+        try
+        {
+            for (WordCountTable stripe : stripes)
+            {
+                merged.addAll(stripe);
+            }
+        }
+        finally
+        {
+            for (ReentrantLock lock : locks)
+            {
+                lock.unlock();
+            }
+        }
+        return new WordAnalysis(merged);
+    }
+
+    /**
+     * Picks the stripe for a hash code, using its high bits after mixing
+     * so they do not follow the bits each stripe uses to pick a slot.
+     *
+     * @param hash  the hash code of the word
+     * @return      the index of the stripe
+     */
+    private int stripeFor(int hash)
+    {
+        if (shift == 32)
+        {
+            return 0;
+        }
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+}
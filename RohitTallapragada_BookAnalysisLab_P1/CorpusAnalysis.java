@@ -0,0 +1,284 @@
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Analyzes a whole collection of books at once.  Each book is read on
+ * its own thread into its own WordAnalysis, and the words of all the
+ * books are merged into one corpus-wide WordAnalysis.
+ *
+ * Books are read on virtual threads when the JVM has them (Java 21 and
+ * later) and on a fixed pool of platform threads otherwise.  Either way,
+ * no more than maxConcurrent books are read at the same time.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class CorpusAnalysis
+{
+    // instance variables
+    private LinkedHashMap<String, WordAnalysis> books;  // each book, by file name
+    private WordAnalysis corpus;                        // all the books together
+
+    /**
+     * Analyzes every ".txt" file in a directory.
+     *
+     * @param  directoryName  the pathname of the directory of books
+     * @throws IOException    the directory or a book cannot be read
+     */
+    public CorpusAnalysis(String directoryName) throws IOException
+    {
+        this(listBooks(directoryName), defaultConcurrency());
+    }
+
+    /**
+     * Analyzes the given books.  A book named more than once, even by
+     * different pathnames to the same file, is read and counted only
+     * once, under the first of its names.
+     *
+     * @param  fileNames      the pathnames of the books
+     * @param  maxConcurrent  the most books read at the same time
+     * @throws IOException    a book cannot be read
+     */
+    public CorpusAnalysis(List<String> fileNames, int maxConcurrent) throws IOException
+    {
+        if (maxConcurrent < 1)
+        {
+            throw new IllegalArgumentException("At least one book has to be read at a time.");
+        }
+        fileNames = withoutDuplicates(fileNames);
+        ArrayList<WordCountTable> tables = readAll(fileNames, maxConcurrent);
+
+        books = new LinkedHashMap<String, WordAnalysis>();
+        WordCountTable merged = new WordCountTable();
+        for (int i = 0; i < fileNames.size(); i++)
+        {
+            books.put(fileNames.get(i), new WordAnalysis(tables.get(i)));
+            merged.addAll(tables.get(i));
+        }
+        corpus = new WordAnalysis(merged);
+    }
+
+    /**
+     * Retrieve the names of the books, in the order they were given.
+     *
+     * @return the pathnames of the books
+     */
+    public List<String> getBookNames()
+    {
+        return Collections.unmodifiableList(new ArrayList<String>(books.keySet()));
+    }
+
+    /**
+     * Retrieve the analysis of one book.
+     *
+     * @param fileName  the pathname of the book
+     * @return          the analysis of the book, or null if it is not
+     *                  part of the corpus
+     */
+    public WordAnalysis getBook(String fileName)
+    {
+        return books.get(fileName);
+    }
+
+    /**
+     * Retrieve the analysis of all the books together.
+     *
+     * @return the analysis of the merged words of every book
+     */
+    public WordAnalysis getCorpus()
+    {
+        return corpus;
+    }
+
+    /**
+     * Determines how many words, in total, are in all the books.
+     *
+     * @return the total number of words in the corpus
+     */
+    public long sumWords()
+    {
+        return corpus.sumWords();
+    }
+
+    /**
+     * Returns how many different words are in all the books together.
+     *
+     * @return the number of different words in the corpus
+     */
+    public int getNumberOfUniqueWords()
+    {
+        return corpus.getNumberOfUniqueWords();
+    }
+
+    /**
+     * Drops every pathname that names the same file as one before it.
+     * Pathnames are compared after following symbolic links, so ".",
+     * ".." and links to a book are caught, as well as the differences in
+     * case that the file system ignores; hard links to one file are not.
+     * A file that does not exist is compared by its absolute pathname,
+     * and reported when it is read.
+     *
+     * @param fileNames  the pathnames of the books
+     * @return           the pathnames of different files, in the order
+     *                   they were given
+     */
+    private static List<String> withoutDuplicates(List<String> fileNames)
+    {
+        HashSet<Path> seen = new HashSet<Path>();
+        ArrayList<String> different = new ArrayList<String>();
+        for (String fileName : fileNames)
+        {
+            Path file = Paths.get(fileName).toAbsolutePath().normalize();
+            try
+            {
+                file = file.toRealPath();
+            }
+            catch (IOException e)
+            {
+                // the book cannot be found; readAll says so
+            }
+            if (seen.add(file))
+            {
+                different.add(fileName);
+            }
+        }
+        return different;
+    }
+
+    /**
+     * Reads every book on its own thread, no more than maxConcurrent at
+     * a time.
+     *
+     * @param fileNames      the pathnames of the books
+     * @param maxConcurrent  the most books read at the same time
+     * @return               the counts of each book, in the same order
+     * @throws IOException   a book cannot be read
+     */
+    private static ArrayList<WordCountTable> readAll(List<String> fileNames, int maxConcurrent)
+        throws IOException
+    {
+        ExecutorService executor = newExecutor(maxConcurrent);
+        Semaphore permits = new Semaphore(maxConcurrent);
+        ArrayList<Future<WordCountTable>> futures = new ArrayList<Future<WordCountTable>>();
+        try
+        {
+            for (int i = 0; i < fileNames.size(); i++)
+            {
+                String fileName = fileNames.get(i);
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try
+                    {
+                        WordCountTable counts = new WordCountTable();
+                        new MappedBookReader().read(fileName, new WordTokenizer(counts));
+                        return counts;
+                    }
+                    finally
+                    {
+                        permits.release();
+                    }
+                }));
+            }
+
+            ArrayList<WordCountTable> tables = new ArrayList<WordCountTable>();
+            for (int i = 0; i < futures.size(); i++)
+            {
+                tables.add(futures.get(i).get());
+            }
+            return tables;
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading the corpus.", e);
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException)e.getCause();
+            }
+            throw new IOException("A book could not be read.", e.getCause());
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Creates an executor that starts a virtual thread per task if the
+     * JVM supports them, or else a pool of maxConcurrent platform threads.
+     *
+     * @param maxConcurrent  the most books read at the same time
+     * @return               the executor
+     */
+    private static ExecutorService newExecutor(int maxConcurrent)
+    {
+        try
+        {
+            // looked up by name so that this still compiles and runs
+            // on JVMs without virtual threads
+            return (ExecutorService)Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return Executors.newFixedThreadPool(maxConcurrent);
+        }
+    }
+
+    /**
+     * Lists the ".txt" files in a directory, sorted by name.
+     *
+     * @param directoryName  the pathname of the directory
+     * @return               the pathnames of the books
+     * @throws IOException   the directory cannot be read
+     */
+    private static List<String> listBooks(String directoryName) throws IOException
+    {
+        ArrayList<String> fileNames = new ArrayList<String>();
+        DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(directoryName), "*.txt");
+        try
+        {
+            for (Path path : stream)
+            {
+                if (Files.isRegularFile(path))
+                {
+                    fileNames.add(path.toString());
+                }
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+        Collections.sort(fileNames);
+        return fileNames;
+    }
+
+    /**
+     * Retrieve how many books are read at the same time by default.
+     * Reading is mostly waiting on the disk, so this is more than the
+     * number of processors.
+     *
+     * @return the default number of books read at once
+     */
+    private static int defaultConcurrency()
+    {
+        return Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    }
+}
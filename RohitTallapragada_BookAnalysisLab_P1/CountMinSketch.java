@@ -0,0 +1,168 @@
+/**
+ * A Count-Min Sketch: an estimate of how often each word appears, kept
+ * in a fixed-size table of counters no matter how many different words
+ * there are.
+ *
+ * The table has depth rows of width counters.  Each word is hashed to
+ * one counter in every row, and its estimate is the smallest of those
+ * counters.  Other words hashed to the same counters can only make the
+ * estimate too high, never too low.  With N words counted in all, the
+ * estimate of any one word is at most
+ *      true frequency + (e / width) * N
+ * except with probability at most e^-depth.
+ *
+ * Counting uses the conservative update: only the counters that are at
+ * the word's current estimate are raised.  The bound above still holds,
+ * and the estimates are usually much closer.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class CountMinSketch
+{
+    // instance variables
+    private long[] cells;   // row r of the table starts at r * width
+    private int width;
+    private int depth;
+    private int[] rows;     // where the last word hashed to, one per row
+
+    /**
+     * Constructor for an empty sketch.
+     *
+     * @param width  the number of counters in each row
+     * @param depth  the number of rows
+     */
+    public CountMinSketch(int width, int depth)
+    {
+        if (width < 1 || depth < 1)
+        {
+            throw new IllegalArgumentException("The sketch needs at least one counter.");
+        }
+        if ((long)width * depth > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The sketch is too large.");
+        }
+        this.width = width;
+        this.depth = depth;
+        cells = new long[width * depth];
+        rows = new int[depth];
+    }
+
+    /**
+     * Counts one appearance of a word, given by its hash code.
+     *
+     * @param hash  the word's hash code, as String.hashCode computes it
+     * @return      the word's estimated frequency after counting it
+     */
+    public long add(int hash)
+    {
+        locate(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int r = 0; r < depth; r++)
+        {
+            estimate = Math.min(estimate, cells[rows[r]]);
+        }
+        estimate++;
+        for (int r = 0; r < depth; r++)
+        {
+            if (cells[rows[r]] < estimate)
+            {
+                cells[rows[r]] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimates how often a word, given by its hash code, has appeared.
+     *
+     * @param hash  the word's hash code, as String.hashCode computes it
+     * @return      the estimate, which is never below the true frequency
+     */
+    public long estimate(int hash)
+    {
+        locate(hash);
+        long estimate = Long.MAX_VALUE;
+        for (int r = 0; r < depth; r++)
+        {
+            estimate = Math.min(estimate, cells[rows[r]]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Estimates how often a word has appeared.
+     *
+     * @param word  the word of interest
+     * @return      the estimate, which is never below the true frequency
+     */
+    public long estimate(String word)
+    {
+        return estimate(word.hashCode());
+    }
+
+    /**
+     * Halves every counter, rounding down, so that what was counted
+     * earlier weighs half as much as what is counted from now on.  The
+     * estimates are no longer bounds on the true frequencies afterwards.
+     */
+    public void halve()
+    {
+        for (int i = 0; i < cells.length; i++)
+        {
+            cells[i] >>>= 1;
+        }
+    }
+
+    /**
+     * Retrieve the most an estimate can be too high, except with
+     * probability errorProbability, after total words have been counted.
+     *
+     * @param total  the number of words counted
+     * @return       (e / width) * total, rounded up
+     */
+    public long errorBound(long total)
+    {
+        return (long)Math.ceil(Math.E / width * total);
+    }
+
+    /**
+     * Retrieve the probability that an estimate is off by more than
+     * errorBound.
+     *
+     * @return e^-depth
+     */
+    public double errorProbability()
+    {
+        return Math.exp(-depth);
+    }
+
+    /**
+     * Estimates how many bytes of memory the sketch takes up.
+     *
+     * @return the approximate size of the sketch in bytes
+     */
+    public long memoryBytes()
+    {
+        return 16 + 8L * cells.length + 16 + 4L * rows.length;
+    }
+
+    /**
+     * Finds the counter for a hash code in every row, using two hash
+     * functions made from the hash code: row r uses h1 + r * h2.
+     *
+     * @param hash  the word's hash code
+     */
+    private void locate(int hash)
+    {
+        long h = hash * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xC2B2AE3D27D4EB4FL;
+        int h1 = (int)h;
+        int h2 = (int)(h >>> 32) | 1;
+        for (int r = 0; r < depth; r++)
+        {
+            rows[r] = r * width + Math.floorMod(h1 + r * h2, width);
+        }
+    }
+}
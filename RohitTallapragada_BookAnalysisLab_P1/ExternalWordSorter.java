@@ -0,0 +1,732 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * Counts and sorts the words of books with more different words than fit
+ * in memory.
+ *
+ * Words are counted in a WordCountTable until it takes up about the
+ * memory budget.  The table is then spilled: its words are written, in
+ * lexicographic order with their counts, to a run file in a temporary
+ * directory, and the table is emptied.  When every book has been read,
+ * the runs are merged, a few at a time, adding up the counts of the same
+ * word found in different runs, into one run holding every word once.
+ *
+ * From that run, writeAlphabetical writes the words in lexicographic
+ * order, and writeByFrequency writes them most frequent first, with
+ * words of the same frequency in lexicographic order, by spilling and
+ * merging again in that order.  Each line is a word and its frequency,
+ * laid out as Word.toString lays them out, so the files hold the same
+ * lines as printing the in-memory word list after sortWords or
+ * sortFrequencyByCounting.
+ *
+ * A run file is a list of records, each:
+ *      int      number of bytes in the word
+ *      byte[]   the word, in UTF-8
+ *      long     its count
+ *
+ * Counts are longs, so a word may appear more than Integer.MAX_VALUE
+ * times across runs.  Call close to delete the temporary files.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ExternalWordSorter implements TokenSink
+{
+    // smallest memory budget accepted, in bytes
+    private static final long MIN_BUDGET = 64 * 1024;
+
+    // estimated bytes per different word in the table, besides its
+    // characters: a String and its array, and three table slots at most
+    // half full
+    private static final int BYTES_PER_WORD = 24 + 16 + 2 * (4 + 4 + 4);
+
+    // estimated bytes per word held while sorting by frequency
+    private static final int BYTES_PER_ENTRY = 24 + 24 + 16 + 4;
+
+    // the most runs merged at once
+    private static final int FAN_IN = 64;
+
+    // size of the buffer of each run being read or written
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // orders entries lexicographically
+    private static final Comparator<Entry> ALPHABETICAL = (a, b) -> a.word.compareTo(b.word);
+
+    // orders entries most frequent first, then lexicographically
+    private static final Comparator<Entry> BY_FREQUENCY = (a, b) -> {
+        if (a.count != b.count)
+        {
+            return a.count > b.count ? -1 : 1;
+        }
+        return a.word.compareTo(b.word);
+    };
+
+    // instance variables
+    private long memoryBudget;       // bytes the table may take up
+    private Path directory;          // where the runs are written
+    private WordCountTable counts;   // words counted since the last spill
+    private long tableBytes;         // estimated size of counts
+    private List<Path> runs;         // spilled runs, in lexicographic order
+    private Path merged;             // every word, once all runs are merged
+    private int nextRun;             // number used to name the next run
+    private long total;              // words counted, with repetitions
+    private long uniqueWords;        // different words, once merged
+    private int spills;              // times the table has been spilled
+
+    /**
+     * Constructor for an empty sorter that keeps its runs in a new
+     * temporary directory.
+     *
+     * @param  memoryBudget  about how many bytes the words may take up
+     *                       in memory
+     * @throws IOException   the temporary directory cannot be made
+     */
+    public ExternalWordSorter(long memoryBudget) throws IOException
+    {
+        this(memoryBudget, Files.createTempDirectory("wordruns"));
+    }
+
+    /**
+     * Constructor for an empty sorter that keeps its runs in directory.
+     *
+     * @param memoryBudget  about how many bytes the words may take up in
+     *                      memory
+     * @param directory     an existing directory for the runs
+     */
+    public ExternalWordSorter(long memoryBudget, Path directory)
+    {
+        if (memoryBudget < MIN_BUDGET)
+        {
+            throw new IllegalArgumentException("The memory budget must be at least "
+                + MIN_BUDGET + " bytes.");
+        }
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+        counts = new WordCountTable();
+        runs = new ArrayList<Path>();
+    }
+
+    /**
+     * Counts the words of a book.
+     *
+     * @param  fileName     the name of the text of the book
+     * @throws IOException  file is not found, or a run cannot be written
+     */
+    public void read(String fileName) throws IOException
+    {
+        checkOpen();
+        try
+        {
+            new MappedBookReader().read(fileName, new WordTokenizer(this));
+        }
+        catch (SpillFailedException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Counts a word found by a WordTokenizer, spilling the table first if
+     * it has grown to the memory budget.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    public void token(char[] text, int offset, int length)
+    {
+        if (counts.add(text, offset, length) == 1)
+        {
+            tableBytes += BYTES_PER_WORD + length;
+            if (tableBytes >= memoryBudget)
+            {
+                try
+                {
+                    spill();
+                }
+                catch (IOException e)
+                {
+                    throw new SpillFailedException(e);
+                }
+            }
+        }
+        total++;
+    }
+
+    /**
+     * Counts a word.
+     *
+     * @param  word         the word to be counted
+     * @throws IOException  a run cannot be written
+     */
+    public void add(String word) throws IOException
+    {
+        checkOpen();
+        try
+        {
+            token(word.toCharArray(), 0, word.length());
+        }
+        catch (SpillFailedException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Determines how many words, in total, have been counted.
+     *
+     * @return the total number of words
+     */
+    public long sumWords()
+    {
+        return total;
+    }
+
+    /**
+     * Retrieve how many times the table was written out as a run.
+     *
+     * @return the number of spills
+     */
+    public int getSpillCount()
+    {
+        return spills;
+    }
+
+    /**
+     * Determines how many different words have been counted, merging the
+     * runs if that has not been done yet.
+     *
+     * @return the number of different words
+     * @throws IOException a run cannot be read or written
+     */
+    public long getNumberOfUniqueWords() throws IOException
+    {
+        merge();
+        return uniqueWords;
+    }
+
+    /**
+     * Writes every word and its frequency to a file, in lexicographic
+     * order.
+     *
+     * @param  fileName     the name of the file to be written
+     * @throws IOException  a run cannot be read or the file written
+     */
+    public void writeAlphabetical(String fileName) throws IOException
+    {
+        merge();
+        try (RunReader in = new RunReader(merged);
+             Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8))
+        {
+            while (in.current != null)
+            {
+                writeLine(out, in.current);
+                in.next();
+            }
+        }
+    }
+
+    /**
+     * Writes every word and its frequency to a file, most frequent first;
+     * words with the same frequency are in lexicographic order.
+     *
+     * @param  fileName     the name of the file to be written
+     * @throws IOException  a run cannot be read or the file written
+     */
+    public void writeByFrequency(String fileName) throws IOException
+    {
+        merge();
+
+        // cut the words into runs that fit the budget, each sorted by
+        // frequency, then merge those
+        List<Path> frequencyRuns = new ArrayList<Path>();
+        try
+        {
+            try (RunReader in = new RunReader(merged))
+            {
+                ArrayList<Entry> chunk = new ArrayList<Entry>();
+                long chunkBytes = 0;
+                while (in.current != null)
+                {
+                    chunk.add(in.current);
+                    chunkBytes += BYTES_PER_ENTRY + in.current.word.length();
+                    if (chunkBytes >= memoryBudget)
+                    {
+                        frequencyRuns.add(writeRun(chunk, BY_FREQUENCY));
+                        chunk.clear();
+                        chunkBytes = 0;
+                    }
+                    in.next();
+                }
+                if (!chunk.isEmpty() || frequencyRuns.isEmpty())
+                {
+                    frequencyRuns.add(writeRun(chunk, BY_FREQUENCY));
+                }
+            }
+
+            frequencyRuns = mergeDown(frequencyRuns, BY_FREQUENCY);
+            try (Writer out = Files.newBufferedWriter(Paths.get(fileName), StandardCharsets.UTF_8))
+            {
+                mergeRuns(frequencyRuns, BY_FREQUENCY, entry -> writeLine(out, entry));
+            }
+        }
+        finally
+        {
+            deleteAll(frequencyRuns);
+        }
+    }
+
+    /**
+     * Deletes the runs and the temporary directory, if it is empty.  The
+     * sorter cannot be used afterwards.
+     *
+     * @throws IOException a file cannot be deleted
+     */
+    public void close() throws IOException
+    {
+        deleteAll(runs);
+        runs = null;
+        if (merged != null)
+        {
+            Files.deleteIfExists(merged);
+            merged = null;
+        }
+        counts = null;
+        try (Stream<Path> left = Files.list(directory))
+        {
+            if (!left.findAny().isPresent())
+            {
+                Files.delete(directory);
+            }
+        }
+    }
+
+    /**
+     * Writes the words counted since the last spill to a new run and
+     * empties the table.
+     *
+     * @throws IOException the run cannot be written
+     */
+    private void spill() throws IOException
+    {
+        if (counts.size() == 0)
+        {
+            return;
+        }
+        ArrayList<Word> sorted = counts.toSortedList();
+        Path run = newRun();
+        try (DataOutputStream out = openRun(run))
+        {
+            for (int index = 0; index < sorted.size(); index++)
+            {
+                writeRecord(out, sorted.get(index).getWord(), sorted.get(index).getFrequency());
+            }
+        }
+        runs.add(run);
+        counts.clear();
+        tableBytes = 0;
+        spills++;
+    }
+
+    /**
+     * Spills what is left in the table and merges every run into one,
+     * unless that has already been done since the last word was counted.
+     *
+     * @throws IOException a run cannot be read or written
+     */
+    private void merge() throws IOException
+    {
+        checkOpen();
+        if (merged != null && counts.size() == 0)
+        {
+            return;
+        }
+        spill();
+        if (merged != null)
+        {
+            // words were added after the last merge
+            runs.add(merged);
+            merged = null;
+        }
+        runs = mergeDown(runs, ALPHABETICAL);
+
+        Path run = newRun();
+        long[] unique = new long[1];
+        try (DataOutputStream out = openRun(run))
+        {
+            mergeRuns(runs, ALPHABETICAL, entry -> {
+                writeRecord(out, entry.word, entry.count);
+                unique[0]++;
+            });
+        }
+        deleteAll(runs);
+        runs.clear();
+        merged = run;
+        uniqueWords = unique[0];
+    }
+
+    /**
+     * Merges runs, FAN_IN at a time, until there are no more than FAN_IN
+     * of them.  The runs merged are deleted.
+     *
+     * @param  list         the runs, each in the given order
+     * @param  order        the order of the runs
+     * @return              the runs left
+     * @throws IOException  a run cannot be read or written
+     */
+    private List<Path> mergeDown(List<Path> list, Comparator<Entry> order) throws IOException
+    {
+        list = new ArrayList<Path>(list);
+        while (list.size() > FAN_IN)
+        {
+            List<Path> group = new ArrayList<Path>(list.subList(0, FAN_IN));
+            Path run = newRun();
+            try (DataOutputStream out = openRun(run))
+            {
+                mergeRuns(group, order, entry -> writeRecord(out, entry.word, entry.count));
+            }
+            deleteAll(group);
+            list.subList(0, FAN_IN).clear();
+            list.add(run);
+        }
+        return list;
+    }
+
+    /**
+     * Merges runs with a heap of their current records, passing on each
+     * word once with the counts of all its records added up.
+     *
+     * @param  list         the runs, each in the given order
+     * @param  order        the order of the runs
+     * @param  action       what to do with each merged record
+     * @throws IOException  a run cannot be read, or action fails
+     */
+    private static void mergeRuns(List<Path> list, Comparator<Entry> order, EntryAction action)
+        throws IOException
+    {
+        PriorityQueue<RunReader> heap = new PriorityQueue<RunReader>(Math.max(1, list.size()),
+            (a, b) -> order.compare(a.current, b.current));
+        List<RunReader> readers = new ArrayList<RunReader>();
+        try
+        {
+            for (Path run : list)
+            {
+                RunReader reader = new RunReader(run);
+                readers.add(reader);
+                if (reader.current != null)
+                {
+                    heap.add(reader);
+                }
+            }
+
+            Entry pending = null;
+            while (!heap.isEmpty())
+            {
+                RunReader reader = heap.poll();
+                Entry entry = reader.current;
+                if (pending != null && pending.word.equals(entry.word))
+                {
+                    pending.count += entry.count;
+                }
+                else
+                {
+                    if (pending != null)
+                    {
+                        action.accept(pending);
+                    }
+                    pending = entry;
+                }
+                reader.next();
+                if (reader.current != null)
+                {
+                    heap.add(reader);
+                }
+            }
+            if (pending != null)
+            {
+                action.accept(pending);
+            }
+        }
+        finally
+        {
+            for (RunReader reader : readers)
+            {
+                reader.close();
+            }
+        }
+    }
+
+    /**
+     * Sorts entries and writes them to a new run.
+     *
+     * @param  entries      the entries
+     * @param  order        the order they are written in
+     * @return              the run
+     * @throws IOException  the run cannot be written
+     */
+    private Path writeRun(ArrayList<Entry> entries, Comparator<Entry> order) throws IOException
+    {
+        Entry[] sorted = entries.toArray(new Entry[0]);
+        Arrays.sort(sorted, order);
+        Path run = newRun();
+        try (DataOutputStream out = openRun(run))
+        {
+            for (Entry entry : sorted)
+            {
+                writeRecord(out, entry.word, entry.count);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Makes up the name of a new run file.
+     *
+     * @return the path of the run
+     */
+    private Path newRun()
+    {
+        nextRun++;
+        return directory.resolve("run" + nextRun + ".bin");
+    }
+
+    /**
+     * Opens a run file for writing.
+     *
+     * @param  run          the path of the run
+     * @return              the stream to write its records to
+     * @throws IOException  the file cannot be made
+     */
+    private static DataOutputStream openRun(Path run) throws IOException
+    {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run),
+            BUFFER_SIZE));
+    }
+
+    /**
+     * Writes one record of a run.
+     *
+     * @param  out          the run
+     * @param  word         the word
+     * @param  count        its count
+     * @throws IOException  the record cannot be written
+     */
+    private static void writeRecord(DataOutputStream out, String word, long count)
+        throws IOException
+    {
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeLong(count);
+    }
+
+    /**
+     * Writes one line of an output file, the way Word.toString lays out a
+     * word and its frequency.
+     *
+     * @param  out          the output file
+     * @param  entry        the word and its frequency
+     * @throws IOException  the line cannot be written
+     */
+    private static void writeLine(Writer out, Entry entry) throws IOException
+    {
+        out.write(String.format("%-15s %6d", entry.word, entry.count));
+        out.write('\n');
+    }
+
+    /**
+     * Deletes run files.
+     *
+     * @param  list         the runs
+     * @throws IOException  a run cannot be deleted
+     */
+    private static void deleteAll(List<Path> list) throws IOException
+    {
+        for (Path run : list)
+        {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    /**
+     * Makes sure close has not been called.
+     */
+    private void checkOpen()
+    {
+        if (counts == null)
+        {
+            throw new IllegalStateException("The sorter has been closed.");
+        }
+    }
+
+    /**
+     * A word and its count, read from a run.
+     */
+    private static class Entry
+    {
+        // instance variables
+        private String word;
+        private long count;
+
+        /**
+         * Constructor for an entry.
+         *
+         * @param word   the word
+         * @param count  its count
+         */
+        private Entry(String word, long count)
+        {
+            this.word = word;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Something done with each record that comes out of a merge.
+     */
+    private interface EntryAction
+    {
+        /**
+         * Handles one record.
+         *
+         * @param  entry        the word and its count
+         * @throws IOException  the record cannot be written
+         */
+        void accept(Entry entry) throws IOException;
+    }
+
+    /**
+     * Reads a run one record at a time.  current is the record read last,
+     * or null at the end of the run.
+     */
+    private static class RunReader implements AutoCloseable
+    {
+        // instance variables
+        private DataInputStream in;
+        private Entry current;
+
+        /**
+         * Constructor for a reader positioned on the first record.
+         *
+         * @param  run          the path of the run
+         * @throws IOException  the run cannot be read
+         */
+        private RunReader(Path run) throws IOException
+        {
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run),
+                BUFFER_SIZE));
+            next();
+        }
+
+        /**
+         * Moves on to the next record.
+         *
+         * @throws IOException  the run cannot be read
+         */
+        private void next() throws IOException
+        {
+            int length;
+            try
+            {
+                length = in.readInt();
+            }
+            catch (EOFException e)
+            {
+                current = null;
+                return;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            current = new Entry(new String(bytes, StandardCharsets.UTF_8), in.readLong());
+        }
+
+        /**
+         * Closes the run.
+         *
+         * @throws IOException  the run cannot be closed
+         */
+        public void close() throws IOException
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Carries an IOException from a spill out of token, which cannot
+     * throw one.
+     */
+    private static class SpillFailedException extends RuntimeException
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor for the exception.
+         *
+         * @param cause  why the spill failed
+         */
+        private SpillFailedException(IOException cause)
+        {
+            super(cause);
+        }
+
+        /**
+         * Retrieve why the spill failed.
+         *
+         * @return the IOException
+         */
+        public IOException getCause()
+        {
+            return (IOException)super.getCause();
+        }
+    }
+
+    /**
+     * Entry point into ExternalWordSorter.  It counts the words of a book
+     * in a limited amount of memory and writes them in lexicographic
+     * order and by frequency.
+     *
+     * @param  args         the name of the book, the memory budget in
+     *                      bytes, and the names of the alphabetical and
+     *                      by-frequency output files
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        if (args.length < 4)
+        {
+            System.out.println("Usage: java ExternalWordSorter BOOK BUDGET ALPHABETICAL BYFREQUENCY");
+            return;
+        }
+        ExternalWordSorter sorter = new ExternalWordSorter(Long.parseLong(args[1]));
+        try
+        {
+            long start = System.nanoTime();
+            sorter.read(args[0]);
+            sorter.writeAlphabetical(args[2]);
+            sorter.writeByFrequency(args[3]);
+            long millis = (System.nanoTime() - start) / 1000000;
+            System.out.println(sorter.sumWords() + " words, " + sorter.getNumberOfUniqueWords()
+                + " different, " + sorter.getSpillCount() + " spills, in " + millis + " ms");
+        }
+        finally
+        {
+            sorter.close();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts a list of words by frequency in descending order in linear time.
+ * Words with the same frequency end up in lexicographic order, so the
+ * result does not depend on the order the list started in.
+ *
+ * Frequencies are small whole numbers, so the words are placed with a
+ * counting sort that has one bucket per frequency.  When the largest
+ * frequency would make that bucket array too big, a radix sort over the
+ * bytes of the frequency is used instead.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class FrequencySorter
+{
+    // the most buckets the counting sort may use
+    private static final int MAX_BUCKETS = 1 << 20;
+
+    /**
+     * Sorts the list by frequency in descending order; words with the
+     * same frequency are in lexicographic order.
+     *
+     * @param words  the list to be sorted
+     */
+    public static void sort(List<Word> words)
+    {
+        Word[] sorted = words.toArray(new Word[words.size()]);
+        boolean alphabetical = isAlphabetical(sorted);
+
+        int maxFrequency = 0;
+        for (int i = 0; i < sorted.length; i++)
+        {
+            maxFrequency = Math.max(maxFrequency, sorted[i].getFrequency());
+        }
+        if (maxFrequency < MAX_BUCKETS)
+        {
+            sorted = countingSort(sorted, maxFrequency);
+        }
+        else
+        {
+            sorted = radixSort(sorted);
+        }
+
+        // both sorts are stable, so ties are only out of order when
+        // the list did not start in lexicographic order
+        if (!alphabetical)
+        {
+            sortTies(sorted);
+        }
+
+        for (int i = 0; i < sorted.length; i++)
+        {
+            words.set(i, sorted[i]);
+        }
+    }
+
+    /**
+     * Places the words by frequency using one bucket per frequency.
+     *
+     * @param words         the words to be sorted
+     * @param maxFrequency  the largest frequency of any of the words
+     * @return              the words, most frequent first, with ties in
+     *                      the order they were given
+     */
+    private static Word[] countingSort(Word[] words, int maxFrequency)
+    {
+        // starts[f] becomes where the first word with frequency f goes
+        int[] starts = new int[maxFrequency + 2];
+        for (int i = 0; i < words.length; i++)
+        {
+            starts[words[i].getFrequency()]++;
+        }
+        int next = 0;
+        for (int f = maxFrequency; f >= 0; f--)
+        {
+            int count = starts[f];
+            starts[f] = next;
+            next += count;
+        }
+
+        Word[] sorted = new Word[words.length];
+        for (int i = 0; i < words.length; i++)
+        {
+            int f = words[i].getFrequency();
+            sorted[starts[f]] = words[i];
+            starts[f]++;
+        }
+        return sorted;
+    }
+
+    /**
+     * Sorts the words by frequency, a byte at a time from the lowest
+     * byte to the highest.  Passes in which every word has the same
+     * byte are skipped.
+     *
+     * @param words  the words to be sorted
+     * @return       the words, most frequent first, with ties in the
+     *               order they were given
+     */
+    private static Word[] radixSort(Word[] words)
+    {
+        Word[] from = words;
+        Word[] to = new Word[words.length];
+        int[] starts = new int[257];
+        for (int shift = 0; shift < 32; shift += 8)
+        {
+            Arrays.fill(starts, 0);
+            for (int i = 0; i < from.length; i++)
+            {
+                starts[digit(from[i], shift) + 1]++;
+            }
+            if (starts[digit(from[0], shift) + 1] == from.length)
+            {
+                continue;
+            }
+            for (int d = 0; d < 256; d++)
+            {
+                starts[d + 1] += starts[d];
+            }
+            for (int i = 0; i < from.length; i++)
+            {
+                int d = digit(from[i], shift);
+                to[starts[d]] = from[i];
+                starts[d]++;
+            }
+            Word[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+
+    /**
+     * Retrieve one byte of the sort key of a word.  The key grows as the
+     * frequency shrinks, so sorting keys upward puts the most frequent
+     * words first.
+     *
+     * @param w      the word
+     * @param shift  how far to shift the key to reach the byte
+     * @return       the byte, from 0 to 255
+     */
+    private static int digit(Word w, int shift)
+    {
+        int key = Integer.MAX_VALUE - w.getFrequency();
+        return (key >>> shift) & 0xFF;
+    }
+
+    /**
+     * Sorts each run of words with the same frequency lexicographically.
+     *
+     * @param sorted  words already sorted by frequency
+     */
+    private static void sortTies(Word[] sorted)
+    {
+        int start = 0;
+        while (start < sorted.length)
+        {
+            int end = start + 1;
+            while (end < sorted.length &&
+                   sorted[end].getFrequency() == sorted[start].getFrequency())
+            {
+                end++;
+            }
+            if (end - start > 1)
+            {
+                Arrays.sort(sorted, start, end, (a, b) -> a.getWord().compareTo(b.getWord()));
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Returns whether the words are in lexicographic order.
+     *
+     * @param words  the words to be checked
+     * @return true if every word comes before the next one; otherwise, false
+     */
+    private static boolean isAlphabetical(Word[] words)
+    {
+        for (int i = 1; i < words.length; i++)
+        {
+            if (words[i - 1].getWord().compareTo(words[i].getWord()) > 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
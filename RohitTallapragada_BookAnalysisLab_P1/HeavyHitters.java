@@ -0,0 +1,337 @@
+/**
+ * Keeps track of the most frequent words in a fixed number of entries,
+ * using the Space-Saving algorithm.
+ *
+ * While there is room, every new word gets an entry.  Once the entries
+ * are full, a new word takes over the entry with the smallest count: its
+ * count becomes that smallest count plus one, and its error becomes the
+ * smallest count, which is the most it may have been over-counted by.
+ * With N words counted in all and capacity entries, this guarantees:
+ *      count - error <= true frequency <= count
+ *      count - true frequency <= N / capacity
+ *      every word appearing more than getMinimumCount() times has an entry
+ *
+ * The entries are kept in a min-heap by count, so the entry to take over
+ * is always the first, and in an open-addressing index from word to
+ * entry.  Counting a word that already has an entry creates no objects.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class HeavyHitters
+{
+    // instance variables: the heap, one position per entry
+    private String[] words;
+    private long[] counts;
+    private long[] errors;
+    private int[] slots;        // where each entry is in the index
+    private int size;           // number of entries in use
+
+    // the index: the entry's heap position plus one, or 0 if empty
+    private int[] index;
+    private int[] hashes;       // hash code of the word in each slot
+
+    /**
+     * Constructor for an empty tracker.
+     *
+     * @param capacity  the number of entries
+     */
+    public HeavyHitters(int capacity)
+    {
+        if (capacity < 1)
+        {
+            throw new IllegalArgumentException("At least one entry is needed.");
+        }
+        words = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        slots = new int[capacity];
+        int tableSize = 16;
+        while (tableSize < capacity * 2)
+        {
+            tableSize *= 2;
+        }
+        index = new int[tableSize];
+        hashes = new int[tableSize];
+    }
+
+    /**
+     * Counts one appearance of a word held in part of a char array.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     * @param hash    the word's hash code, as String.hashCode computes it
+     */
+    public void add(char[] text, int offset, int length, int hash)
+    {
+        int mask = index.length - 1;
+        int slot = WordCountTable.spread(hash) & mask;
+        while (index[slot] != 0)
+        {
+            int position = index[slot] - 1;
+            if (hashes[slot] == hash && WordCountTable.matches(words[position], text, offset, length))
+            {
+                counts[position]++;
+                siftDown(position);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        String word = new String(text, offset, length);
+        if (size < words.length)
+        {
+            int position = size++;
+            place(position, word, 1, 0);
+            link(slot, hash, position);
+            siftUp(position);
+        }
+        else
+        {
+            // take over the entry with the smallest count
+            long smallest = counts[0];
+            unlink(slots[0]);
+            slot = WordCountTable.spread(hash) & mask;
+            while (index[slot] != 0)
+            {
+                slot = (slot + 1) & mask;
+            }
+            place(0, word, smallest + 1, smallest);
+            link(slot, hash, 0);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Finds the entry of a word.
+     *
+     * @param word  the word of interest
+     * @return      the position of its entry, or -1 if it has none
+     */
+    public int find(String word)
+    {
+        int hash = word.hashCode();
+        int mask = index.length - 1;
+        int slot = WordCountTable.spread(hash) & mask;
+        while (index[slot] != 0)
+        {
+            int position = index[slot] - 1;
+            if (hashes[slot] == hash && words[position].equals(word))
+            {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the number of entries in use.
+     *
+     * @return the number of words being tracked
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Retrieve the word of an entry.
+     *
+     * @param position  the position of the entry, from 0 up to size()
+     * @return          the word
+     */
+    public String getWord(int position)
+    {
+        return words[position];
+    }
+
+    /**
+     * Retrieve the count of an entry, which is never below the word's
+     * true frequency.
+     *
+     * @param position  the position of the entry, from 0 up to size()
+     * @return          the count
+     */
+    public long getCount(int position)
+    {
+        return counts[position];
+    }
+
+    /**
+     * Retrieve the most the count of an entry may be too high by.
+     *
+     * @param position  the position of the entry, from 0 up to size()
+     * @return          the error
+     */
+    public long getError(int position)
+    {
+        return errors[position];
+    }
+
+    /**
+     * Retrieve the smallest count of any entry once the entries are
+     * full.  Any word appearing more often than this has an entry.
+     *
+     * @return the smallest count, or 0 while there is still room
+     */
+    public long getMinimumCount()
+    {
+        return size < words.length ? 0 : counts[0];
+    }
+
+    /**
+     * Estimates how many bytes of memory the tracker takes up, including
+     * the words.
+     *
+     * @return the approximate size of the tracker in bytes
+     */
+    public long memoryBytes()
+    {
+        long bytes = 6 * 16 + 4L * words.length + 8L * counts.length + 8L * errors.length
+            + 4L * slots.length + 4L * index.length + 4L * hashes.length;
+        for (int i = 0; i < size; i++)
+        {
+            // a String and its array, each with a header
+            bytes += 24 + 16 + words[i].length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Estimates how many bytes one entry takes up, with a word of
+     * average length, for choosing a capacity to fit a memory budget.
+     *
+     * @return the approximate bytes per entry
+     */
+    public static int bytesPerEntry()
+    {
+        // heap arrays, an index at most half full, and the word itself
+        return 4 + 8 + 8 + 4 + 2 * (4 + 4) + 24 + 16 + 16;
+    }
+
+    /**
+     * Fills in the heap position of an entry.
+     *
+     * @param position  the position
+     * @param word      the word
+     * @param count     its count
+     * @param error     its error
+     */
+    private void place(int position, String word, long count, long error)
+    {
+        words[position] = word;
+        counts[position] = count;
+        errors[position] = error;
+    }
+
+    /**
+     * Points an empty index slot at a heap position.
+     *
+     * @param slot      the slot
+     * @param hash      the hash code of the word
+     * @param position  the heap position of its entry
+     */
+    private void link(int slot, int hash, int position)
+    {
+        index[slot] = position + 1;
+        hashes[slot] = hash;
+        slots[position] = slot;
+    }
+
+    /**
+     * Empties an index slot, then moves back any later words in the same
+     * run of full slots that could no longer be found past the gap.
+     *
+     * @param slot  the slot to be emptied
+     */
+    private void unlink(int slot)
+    {
+        int mask = index.length - 1;
+        index[slot] = 0;
+        int gap = slot;
+        int next = (slot + 1) & mask;
+        while (index[next] != 0)
+        {
+            int home = WordCountTable.spread(hashes[next]) & mask;
+            boolean between = (gap <= next) ? (gap < home && home <= next)
+                                            : (gap < home || home <= next);
+            if (!between)
+            {
+                link(gap, hashes[next], index[next] - 1);
+                index[next] = 0;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    /**
+     * Moves an entry towards the top of the heap while its count is
+     * smaller than its parent's.
+     *
+     * @param position  the position of the entry
+     */
+    private void siftUp(int position)
+    {
+        while (position > 0)
+        {
+            int parent = (position - 1) / 2;
+            if (counts[parent] <= counts[position])
+            {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves an entry towards the bottom of the heap while its count is
+     * larger than one of its children's.
+     *
+     * @param position  the position of the entry
+     */
+    private void siftDown(int position)
+    {
+        while (true)
+        {
+            int child = 2 * position + 1;
+            if (child >= size)
+            {
+                return;
+            }
+            if (child + 1 < size && counts[child + 1] < counts[child])
+            {
+                child++;
+            }
+            if (counts[position] <= counts[child])
+            {
+                return;
+            }
+            swap(position, child);
+            position = child;
+        }
+    }
+
+    /**
+     * Swaps two heap entries, keeping the index pointing at them.
+     *
+     * @param a  the position of one entry
+     * @param b  the position of the other
+     */
+    private void swap(int a, int b)
+    {
+        String word = words[a];
+        long count = counts[a];
+        long error = errors[a];
+        int slot = slots[a];
+        place(a, words[b], counts[b], errors[b]);
+        slots[a] = slots[b];
+        place(b, word, count, error);
+        slots[b] = slot;
+        index[slots[a]] = a + 1;
+        index[slots[b]] = b + 1;
+    }
+}
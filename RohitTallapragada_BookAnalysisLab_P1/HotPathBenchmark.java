@@ -0,0 +1,446 @@
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.function.LongSupplier;
+
+/**
+ * The work of the WordAnalysis hot path benchmarks: readFile, cleanUp,
+ * sequentialSearchToProcessWord (with addWord), sortWords, sortFrequency,
+ * sortFrequencyByCounting and findWord, and WordTokenizer splitting a
+ * book's bytes one byte at a time (tokenizeScalar) and eight bytes at a
+ * time (tokenizeWordAtATime).
+ *
+ * The benchmarks themselves are the JMH ones in the benchmarks module;
+ * see README.TXT.  JMH does not allow benchmarks in the default package,
+ * and classes in a named package cannot use the classes of this project,
+ * so operationFor builds each benchmark's work here and hands it over as
+ * an Operation, which the JMH benchmarks only see as a Runnable and a
+ * LongSupplier.
+ *
+ * main is a quick check for when the Maven build is not at hand.  It
+ * times some warm-up calls and then some measured calls of each
+ * benchmark on each input with a BenchmarkTimer, and reports the mean and
+ * standard deviation of the time per call, the best time and the bytes
+ * allocated per call.  It does not guard against the JIT the way JMH
+ * does, so only large differences mean anything.
+ *
+ * An input is either the name of a book or a synthetic corpus written
+ * as zipf:WORDS[:VOCABULARY[:EXPONENT]], which is WORDS words drawn from
+ * VOCABULARY different words (WORDS / 10 if not given) whose frequencies
+ * follow Zipf's law with the given exponent (1.0 if not given).  The
+ * same corpus is generated every time, so runs can be compared.
+ *
+ * Usage:  java HotPathBenchmark [-w warmups] [-i calls] [-b benchmark,...]
+ *                               [input ...]
+ *
+ * Without inputs, hello.txt, cat.txt, MobyDick.txt and zipf:50000 are
+ * used.  readFile and sequentialSearchToProcessWord take several seconds
+ * per call on MobyDick.txt.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class HotPathBenchmark
+{
+    /** The names of the benchmarks, in the order they are run. */
+    public static final String[] BENCHMARKS = {
+        "readFile", "cleanUp", "sequentialSearchToProcessWord", "sortWords", "sortFrequency",
+        "sortFrequencyByCounting", "findWord", "tokenizeScalar", "tokenizeWordAtATime"
+    };
+
+    // number of words looked up by one findWord operation
+    private static final int LOOKUPS = 1024;
+
+    /**
+     * Turns an input into the pathname of a book, writing the synthetic
+     * corpus if it is zipf:WORDS[:VOCABULARY[:EXPONENT]].
+     *
+     * @param input  the name of a book or a synthetic corpus
+     * @return       the pathname of the book
+     * @throws IOException the corpus cannot be written
+     */
+    public static String resolveInput(String input) throws IOException
+    {
+        if (!input.startsWith("zipf:"))
+        {
+            return input;
+        }
+        String[] parts = input.split(":");
+        int words = Integer.parseInt(parts[1]);
+        int vocabulary = parts.length > 2 ? Integer.parseInt(parts[2])
+                                          : Math.max(1, words / 10);
+        double exponent = parts.length > 3 ? Double.parseDouble(parts[3]) : 1.0;
+        return writeZipfCorpus(words, vocabulary, exponent).getPath();
+    }
+
+    /**
+     * Builds the operation for a benchmark on a book.
+     *
+     * @param benchmark  the name of the benchmark, one of BENCHMARKS
+     * @param fileName   the pathname of the book
+     * @return           the operation
+     * @throws IOException the book cannot be read
+     */
+    public static Operation operationFor(String benchmark, String fileName) throws IOException
+    {
+        if (benchmark.equals("readFile"))
+        {
+            return new Operation()
+            {
+                public long getAsLong()
+                {
+                    try
+                    {
+                        return new WordAnalysis(fileName, IngestMode.SEQUENTIAL)
+                            .getNumberOfUniqueWords();
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+        }
+
+        if (benchmark.startsWith("tokenize"))
+        {
+            byte[] bytes = Files.readAllBytes(Paths.get(fileName));
+            boolean wordAtATime = benchmark.equals("tokenizeWordAtATime");
+            long[] characters = new long[1];
+            WordTokenizer tokenizer = new WordTokenizer(
+                (text, offset, length) -> characters[0] += length, wordAtATime);
+            return new Operation()
+            {
+                public long getAsLong()
+                {
+                    tokenizer.feed(ByteBuffer.wrap(bytes));
+                    tokenizer.finish();
+                    return characters[0];
+                }
+            };
+        }
+
+        if (benchmark.equals("sortFrequencyByCounting"))
+        {
+            return new Operation()
+            {
+                WordAnalysis target;
+
+                public void run()
+                {
+                    // the counting sort's order is kept until the words
+                    // change, so each call needs a fresh analysis
+                    try
+                    {
+                        target = new WordAnalysis(fileName, IngestMode.STREAMING);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                    target.sortWords();
+                }
+
+                public long getAsLong()
+                {
+                    target.sortFrequencyByCounting();
+                    return target.sumTopWords(1);
+                }
+            };
+        }
+
+        String[] raw = rawTokens(fileName);
+        WordAnalysis helper = new WordAnalysis(fileName, IngestMode.MAPPED);
+        if (benchmark.equals("cleanUp"))
+        {
+            return new Operation()
+            {
+                public long getAsLong()
+                {
+                    long length = 0;
+                    for (String token : raw)
+                    {
+                        length += helper.cleanUp(token).length();
+                    }
+                    return length;
+                }
+            };
+        }
+        else if (benchmark.equals("sequentialSearchToProcessWord"))
+        {
+            ArrayList<String> cleaned = new ArrayList<String>();
+            for (String token : raw)
+            {
+                String word = helper.cleanUp(token);
+                if (word.length() > 0)
+                {
+                    cleaned.add(word);
+                }
+            }
+            File empty = File.createTempFile("empty", ".txt");
+            empty.deleteOnExit();
+            return new Operation()
+            {
+                WordAnalysis target;
+
+                public void run()
+                {
+                    try
+                    {
+                        target = new WordAnalysis(empty.getPath(), IngestMode.SEQUENTIAL);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+
+                public long getAsLong()
+                {
+                    long position = 0;
+                    for (int i = 0; i < cleaned.size(); i++)
+                    {
+                        position += target.sequentialSearchToProcessWord(cleaned.get(i));
+                    }
+                    return position;
+                }
+            };
+        }
+        else if (benchmark.equals("sortWords"))
+        {
+            return new Operation()
+            {
+                public void run()
+                {
+                    helper.sortFrequency();
+                }
+
+                public long getAsLong()
+                {
+                    helper.sortWords();
+                    return helper.sumTopWords(1);
+                }
+            };
+        }
+        else if (benchmark.equals("sortFrequency"))
+        {
+            return new Operation()
+            {
+                public void run()
+                {
+                    helper.sortWords();
+                }
+
+                public long getAsLong()
+                {
+                    helper.sortFrequency();
+                    return helper.sumTopWords(1);
+                }
+            };
+        }
+        else if (benchmark.equals("findWord"))
+        {
+            // half of the words looked up are in the book; the others
+            // are those words with an extra letter, which mostly are not
+            ArrayList<Word> all = helper.topWords(helper.getNumberOfUniqueWords());
+            String[] lookups = new String[LOOKUPS];
+            Random random = new Random(LOOKUPS);
+            for (int i = 0; i < LOOKUPS && all.size() > 0; i++)
+            {
+                String word = all.get(random.nextInt(all.size())).getWord();
+                lookups[i] = i % 2 == 0 ? word : word + "q";
+            }
+            helper.findWord("");
+            return new Operation()
+            {
+                public long getAsLong()
+                {
+                    long found = 0;
+                    for (int i = 0; i < LOOKUPS && lookups[i] != null; i++)
+                    {
+                        found += helper.findWord(lookups[i]);
+                    }
+                    return found;
+                }
+            };
+        }
+        throw new IllegalArgumentException("Unknown benchmark " + benchmark + ".");
+    }
+
+    /**
+     * Splits a book into tokens the way readFile does, before cleanUp.
+     *
+     * @param fileName  the pathname of the book
+     * @return          the lowercased, trimmed tokens
+     * @throws IOException the book cannot be read
+     */
+    private static String[] rawTokens(String fileName) throws IOException
+    {
+        ArrayList<String> tokens = new ArrayList<String>();
+        Scanner inFile = new Scanner(new File(fileName));
+        while (inFile.hasNext())
+        {
+            tokens.add(inFile.next().toLowerCase().trim());
+        }
+        inFile.close();
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    /**
+     * Writes a synthetic corpus whose word frequencies follow Zipf's law:
+     * the word of rank r appears in proportion to 1 / r^exponent.  Words
+     * are spelled from their rank ("a", "b", ..., "z", "aa", ...), some
+     * are capitalized or followed by punctuation so that cleanUp has
+     * something to remove, and a fixed seed makes every corpus with the
+     * same settings the same.
+     *
+     * @param words       the number of words to write
+     * @param vocabulary  the number of different words to draw from
+     * @param exponent    the exponent of Zipf's law
+     * @return            the temporary file holding the corpus
+     * @throws IOException the file cannot be written
+     */
+    public static File writeZipfCorpus(int words, int vocabulary, double exponent)
+        throws IOException
+    {
+        double[] cumulative = new double[vocabulary];
+        double total = 0;
+        for (int rank = 0; rank < vocabulary; rank++)
+        {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+
+        File file = File.createTempFile("zipf" + words + "-", ".txt");
+        file.deleteOnExit();
+        Random random = new Random(words * 31L + vocabulary);
+        BufferedWriter out = new BufferedWriter(new FileWriter(file));
+        try
+        {
+            for (int i = 0; i < words; i++)
+            {
+                int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                String word = spell(rank < 0 ? Math.min(-rank - 1, vocabulary - 1) : rank);
+                int decoration = random.nextInt(20);
+                if (decoration == 0)
+                {
+                    word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                }
+                out.write(word);
+                out.write(decoration == 1 ? ", " : decoration == 2 ? ".\n" : " ");
+            }
+        }
+        finally
+        {
+            out.close();
+        }
+        return file;
+    }
+
+    /**
+     * Spells a number in letters: 0 is "a", 25 is "z", 26 is "aa" and so on.
+     *
+     * @param number  the number to spell
+     * @return        its spelling
+     */
+    private static String spell(int number)
+    {
+        StringBuilder word = new StringBuilder();
+        int n = number + 1;
+        while (n > 0)
+        {
+            n--;
+            word.append((char)('a' + n % 26));
+            n /= 26;
+        }
+        return word.reverse().toString();
+    }
+
+    /**
+     * One call of a benchmark: run does the set-up for the next call,
+     * which is not timed, and getAsLong does the work being measured.
+     * Both are the methods of JDK interfaces so that the JMH benchmarks,
+     * which cannot name this class, can call them.
+     */
+    public abstract static class Operation implements Runnable, LongSupplier
+    {
+        /**
+         * Sets up the next call; not timed.  Does nothing unless a
+         * benchmark needs it.
+         */
+        public void run()
+        {
+        }
+
+        /**
+         * Does the work being measured.
+         *
+         * @return a value depending on the work, so it cannot be skipped
+         */
+        public abstract long getAsLong();
+    }
+
+    /**
+     * Entry point into HotPathBenchmark.
+     *
+     * @param  args         the options and inputs described above
+     * @throws IOException  if a book cannot be read
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int warmups = 2;
+        int calls = 5;
+        List<String> benchmarks = Arrays.asList(BENCHMARKS);
+        ArrayList<String> inputs = new ArrayList<String>();
+        for (int i = 0; i < args.length; i++)
+        {
+            if (args[i].equals("-w") && i + 1 < args.length)
+            {
+                warmups = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-i") && i + 1 < args.length)
+            {
+                calls = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("-b") && i + 1 < args.length)
+            {
+                benchmarks = Arrays.asList(args[++i].split(","));
+            }
+            else
+            {
+                inputs.add(args[i]);
+            }
+        }
+        if (inputs.isEmpty())
+        {
+            inputs.addAll(Arrays.asList("hello.txt", "cat.txt", "MobyDick.txt", "zipf:50000"));
+        }
+
+        BenchmarkTimer timer = new BenchmarkTimer(warmups, calls);
+        System.out.printf("%-29s %-14s %24s %12s %14s\n", "Benchmark", "Input",
+            "ms/op", "Best ms", "B/op");
+        for (String input : inputs)
+        {
+            String fileName = resolveInput(input);
+            for (String benchmark : benchmarks)
+            {
+                Operation operation = operationFor(benchmark, fileName);
+                BenchmarkTimer.Result result = timer.time(
+                    () -> { operation.run(); return 0; }, operation::getAsLong);
+                System.out.printf("%-29s %-14s %12.4f +- %-8.4f %12.4f %14.0f\n",
+                    benchmark, input, result.getMeanMillis(), result.getDeviationMillis(),
+                    result.getBestMillis(), result.getBytesPerCall());
+            }
+        }
+    }
+}
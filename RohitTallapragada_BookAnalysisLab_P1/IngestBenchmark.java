@@ -0,0 +1,51 @@
+import java.io.IOException;
+
+/**
+ * Times how long each IngestMode takes to read a book, and how many
+ * bytes it allocates doing so, with a BenchmarkTimer, and checks that
+ * every mode counts the same words.
+ *
+ * Run main with the name of a book (MobyDick.txt if none is given) and,
+ * optionally, how many timed runs to make of each mode.  One run of each
+ * mode is made first to warm up.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class IngestBenchmark
+{
+    /**
+     * Entry point into IngestBenchmark.
+     *
+     * @param  args         the name of the book and the number of timed runs
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        int runs = 3;
+        if (args.length > 1)
+        {
+            runs = Integer.parseInt(args[1]);
+        }
+
+        WordAnalysis expected = new WordAnalysis(fileName, IngestMode.SEQUENTIAL);
+        BenchmarkTimer timer = new BenchmarkTimer(1, runs);
+        System.out.printf("%-12s %10s %8s %12s %12s\n", "Mode", "Words", "Unique",
+            "Best ms", "Alloc MB");
+        for (IngestMode mode : IngestMode.values())
+        {
+            BenchmarkTimer.Result result = timer.time(
+                () -> new WordAnalysis(fileName, mode).getNumberOfUniqueWords());
+            WordAnalysis analysis = new WordAnalysis(fileName, mode);
+            if (analysis.sumWords() != expected.sumWords() ||
+                analysis.getNumberOfUniqueWords() != expected.getNumberOfUniqueWords())
+            {
+                throw new IllegalStateException(mode + " counted different words.");
+            }
+            System.out.printf("%-12s %10d %8d %12.1f %12.1f\n", mode, analysis.sumWords(),
+                analysis.getNumberOfUniqueWords(), result.getBestMillis(),
+                result.getBytesPerCall() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * The ways WordAnalysis can read a book and count its words.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public enum IngestMode
+{
+    /**
+     * The original path: every word is found with a sequential search of
+     * the alphabetical words list and new words are inserted in place.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Words are counted in a WordCountTable; the alphabetical words list
+     * is only built when it is asked for.
+     */
+    HASHED,
+
+    /**
+     * Like HASHED, but the file is read into a reusable char buffer and
+     * split by a WordTokenizer instead of a Scanner and cleanUp.
+     */
+    STREAMING,
+
+    /**
+     * Like STREAMING, but the file is memory-mapped by a MappedBookReader
+     * and its bytes are split without being decoded to chars.
+     */
+    MAPPED,
+
+    /**
+     * Like MAPPED, but the file is cut into ranges that are counted on
+     * several threads by a ParallelBookReader.
+     */
+    PARALLEL,
+
+    /**
+     * Like MAPPED, but a BookFollower remembers how much of the file has
+     * been read, so WordAnalysis.refresh can count just the text added
+     * to the end of the file since then.
+     */
+    INCREMENTAL,
+
+    /**
+     * Like MAPPED, but the words are then kept in a ColumnarWordStore,
+     * packed into one byte array with int columns for where each word
+     * starts and how often it appears, instead of as Word objects.
+     */
+    COLUMNAR,
+
+    /**
+     * The file, which may be compressed as .gz or .zip, is read by a
+     * PipelinedBookReader: reading and decompressing, tokenizing and
+     * counting each run on their own thread.
+     */
+    PIPELINED
+}
@@ -0,0 +1,186 @@
+/**
+ * An open-addressing hash table from a long key to an int count, kept in
+ * two primitive arrays so that counting creates no objects.
+ *
+ * The key 0 marks an empty slot and cannot be counted.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class LongCountMap
+{
+    // instance variables
+    private long[] keys;     // the keys, 0 where a slot is empty
+    private int[] counts;    // the count of the key in each slot
+    private int size;        // number of keys
+
+    /**
+     * Constructor for an empty map sized for about the given number of
+     * keys.
+     *
+     * @param expectedKeys  the number of keys expected
+     */
+    public LongCountMap(int expectedKeys)
+    {
+        int capacity = 16;
+        while (capacity < expectedKeys * 2 && capacity < (1 << 30))
+        {
+            capacity *= 2;
+        }
+        keys = new long[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Adds one to the count of a key, adding the key if it is not there.
+     *
+     * @param key  the key to be counted; not 0
+     * @return     the count of the key after it has been added
+     */
+    public int add(long key)
+    {
+        if (key == 0)
+        {
+            throw new IllegalArgumentException("0 cannot be counted.");
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0)
+        {
+            if (keys[slot] == key)
+            {
+                return ++counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if ((size + 1) * 4L > keys.length * 3L)
+        {
+            grow();
+            return add(key);
+        }
+        keys[slot] = key;
+        counts[slot] = 1;
+        size++;
+        return 1;
+    }
+
+    /**
+     * Retrieve the count of a key.
+     *
+     * @param key  the key of interest
+     * @return     its count; 0 if it has not been counted
+     */
+    public int get(long key)
+    {
+        if (key == 0)
+        {
+            return 0;
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0)
+        {
+            if (keys[slot] == key)
+            {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieve the number of different keys.
+     *
+     * @return the number of keys
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Retrieve the number of slots, for going through every key with
+     * keyAt and countAt.
+     *
+     * @return the number of slots
+     */
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Retrieve the key in a slot.
+     *
+     * @param slot  the slot, from 0 up to capacity()
+     * @return      the key, or 0 if the slot is empty
+     */
+    public long keyAt(int slot)
+    {
+        return keys[slot];
+    }
+
+    /**
+     * Retrieve the count in a slot.
+     *
+     * @param slot  the slot, from 0 up to capacity()
+     * @return      the count, or 0 if the slot is empty
+     */
+    public int countAt(int slot)
+    {
+        return counts[slot];
+    }
+
+    /**
+     * Estimates how many bytes of memory the map takes up.
+     *
+     * @return the approximate size of the map in bytes
+     */
+    public long memoryBytes()
+    {
+        return 2 * 16 + 8L * keys.length + 4L * counts.length;
+    }
+
+    /**
+     * Doubles the size of the table, placing every key again.
+     */
+    private void grow()
+    {
+        long[] oldKeys = keys;
+        int[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != 0)
+            {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Mixes all the bits of a key into the low bits, which are the ones
+     * used to pick a slot.
+     *
+     * @param key  the key
+     * @return     the mixed hash code
+     */
+    private static int mix(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        key *= 0xC4CEB9FE1A85EC53L;
+        key ^= key >>> 33;
+        return (int)key;
+    }
+}
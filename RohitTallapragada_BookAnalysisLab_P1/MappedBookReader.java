@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Feeds the bytes of a book to a WordTokenizer without decoding the book
+ * to Strings.  A book no bigger than the mapping window is memory-mapped
+ * and tokenized straight from the mapped region; a bigger book is read
+ * through one reusable buffer, a chunk at a time.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class MappedBookReader
+{
+    /** The largest file mapped when no window is given: 256 MB. */
+    public static final long DEFAULT_WINDOW = 256L * 1024 * 1024;
+
+    // size of the buffer used when a file is too big to map
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    // instance variables
+    private long window;    // the largest file that is mapped
+
+    /**
+     * Constructor for a reader that maps files up to DEFAULT_WINDOW bytes.
+     */
+    public MappedBookReader()
+    {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * Constructor for a reader that maps files up to window bytes.
+     *
+     * @param window  the largest file, in bytes, that is mapped; it can be
+     *                no more than Integer.MAX_VALUE
+     */
+    public MappedBookReader(long window)
+    {
+        if (window < 0 || window > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("The window has to be between 0 and "
+                + Integer.MAX_VALUE + " bytes.");
+        }
+        this.window = window;
+    }
+
+    /**
+     * Reads the whole file, sending its bytes to the tokenizer, and
+     * finishes the tokenizer.
+     *
+     * @param fileName    the pathname of the file
+     * @param tokenizer   splits the bytes into words
+     * @throws IOException file is not found or cannot be read
+     */
+    public void read(String fileName, WordTokenizer tokenizer) throws IOException
+    {
+        FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        try
+        {
+            long size = channel.size();
+            if (size <= window)
+            {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                tokenizer.feed(mapped);
+            }
+            else
+            {
+                ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+                while (channel.read(chunk) >= 0)
+                {
+                    chunk.flip();
+                    tokenizer.feed(chunk);
+                    chunk.clear();
+                }
+            }
+            tokenizer.finish();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+}
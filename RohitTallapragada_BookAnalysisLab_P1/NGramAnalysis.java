@@ -0,0 +1,397 @@
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Counts the n-grams of a book: every run of n words in a row, such as
+ * the bigram "of the" or the trigram "the white whale".
+ *
+ * Each different word gets a dense int ID, 0, 1, 2, ..., the first time
+ * it is seen, and the IDs of the last n words are packed into one long,
+ * 64 / n bits per word.  The packed keys are counted in a LongCountMap,
+ * so counting an n-gram already seen creates no objects, and each
+ * different n-gram costs twelve bytes of table rather than a String of
+ * all its words.  Words are only turned back into text for the n-grams
+ * asked for.
+ *
+ * Because of the packing, a book may have at most getMaximumWords()
+ * different words: over a billion for bigrams, about two million for
+ * trigrams and 65535 for 4-grams.
+ *
+ * The words of a book are treated as one long run, so an n-gram may go
+ * across the end of a sentence or a paragraph.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class NGramAnalysis implements TokenSink
+{
+    // the longest n-grams counted; 16 bits per word is the least useful
+    public static final int MAX_N = 4;
+
+    // instance variables
+    private int n;                   // number of words in each n-gram
+    private int bits;                // bits of the key for each word
+    private long keyMask;            // the bits of a whole key
+    private LongCountMap counts;     // packed key to count
+    private long total;              // n-grams counted, with repetitions
+    private long key;                // the last n word IDs, packed
+    private int seen;                // words seen so far, up to n
+    private WordIdTable words;       // the ID of each word
+
+    /**
+     * Constructor for an empty analysis.
+     *
+     * @param n  the number of words in each n-gram, from 1 up to MAX_N
+     */
+    public NGramAnalysis(int n)
+    {
+        if (n < 1 || n > MAX_N)
+        {
+            throw new IllegalArgumentException("n must be from 1 to " + MAX_N + ": " + n);
+        }
+        this.n = n;
+        bits = n == 1 ? 32 : 64 / n;
+        keyMask = n * bits == 64 ? -1L : (1L << (n * bits)) - 1;
+        counts = new LongCountMap(1 << 16);
+        words = new WordIdTable();
+    }
+
+    /**
+     * Constructor for an analysis of the n-grams of a book.
+     *
+     * @param  fileName     the name of the text of the book
+     * @param  n            the number of words in each n-gram, from 1 up
+     *                      to MAX_N
+     * @throws IOException  file is not found
+     */
+    public NGramAnalysis(String fileName, int n) throws IOException
+    {
+        this(n);
+        new MappedBookReader().read(fileName, new WordTokenizer(this));
+    }
+
+    /**
+     * Counts the n-gram ending with a word found by a WordTokenizer.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    public void token(char[] text, int offset, int length)
+    {
+        // once the table is full, only words it already has may be added,
+        // so a word over the limit is never given an ID
+        if (words.size() >= getMaximumWords() &&
+            words.find(new String(text, offset, length)) < 0)
+        {
+            throw new IllegalStateException("Too many different words for " + n
+                + "-grams: at most " + getMaximumWords() + ".");
+        }
+        int id = words.add(text, offset, length);
+        // IDs are stored plus one, so that no packed key is 0
+        key = ((key << bits) | (id + 1L)) & keyMask;
+        if (seen < n)
+        {
+            seen++;
+            if (seen < n)
+            {
+                return;
+            }
+        }
+        counts.add(key);
+        total++;
+    }
+
+    /**
+     * Counts the n-gram ending with a word.
+     *
+     * @param word  the next word of the book
+     */
+    public void add(String word)
+    {
+        token(word.toCharArray(), 0, word.length());
+    }
+
+    /**
+     * Retrieve the number of words in each n-gram.
+     *
+     * @return n
+     */
+    public int getN()
+    {
+        return n;
+    }
+
+    /**
+     * Determines how many n-grams, in total, have been counted.  A book
+     * of w words has w - n + 1 of them.
+     *
+     * @return the total number of n-grams
+     */
+    public long sumNGrams()
+    {
+        return total;
+    }
+
+    /**
+     * Retrieve the number of different n-grams.
+     *
+     * @return the number of different n-grams
+     */
+    public int getNumberOfUniqueNGrams()
+    {
+        return counts.size();
+    }
+
+    /**
+     * Retrieve the number of different words.
+     *
+     * @return the number of word IDs given out
+     */
+    public int getNumberOfUniqueWords()
+    {
+        return words.size();
+    }
+
+    /**
+     * Retrieve the most different words the packed keys have room for.
+     *
+     * @return the largest number of word IDs
+     */
+    public long getMaximumWords()
+    {
+        return (1L << bits) - 1;
+    }
+
+    /**
+     * Finds how often an n-gram appears.
+     *
+     * @param ngram  the n words of the n-gram, separated by spaces
+     * @return       how often it appears; 0 if it does not, or if it is
+     *               not made of n words
+     */
+    public int frequencyOf(String ngram)
+    {
+        String[] parts = ngram.trim().split(" +");
+        if (parts.length != n)
+        {
+            return 0;
+        }
+        long packed = 0;
+        for (String part : parts)
+        {
+            int id = words.find(part);
+            if (id < 0)
+            {
+                return 0;
+            }
+            packed = (packed << bits) | (id + 1L);
+        }
+        return counts.get(packed & keyMask);
+    }
+
+    /**
+     * Looks up an n-gram.
+     *
+     * @param ngram  the n words of the n-gram, separated by spaces
+     * @return       a Word holding the n-gram and its frequency, or null
+     *               if it does not appear
+     */
+    public Word lookUp(String ngram)
+    {
+        int frequency = frequencyOf(ngram);
+        if (frequency == 0)
+        {
+            return null;
+        }
+        return new Word(ngram.trim().replaceAll(" +", " "), frequency);
+    }
+
+    /**
+     * Finds the k most frequent n-grams, each as a Word whose text is its
+     * words separated by spaces.  N-grams with the same frequency are
+     * ranked lexicographically.
+     *
+     * The k-th highest count is found first with a heap of k ints, then
+     * only the n-grams counted at least that often are turned into text
+     * and sorted, so this takes O(m log k) time for m different n-grams
+     * without making an object for each.
+     *
+     * @param k  the number of n-grams wanted
+     * @return   the k most frequent n-grams (or all of them, if there are
+     *           fewer than k), most frequent first
+     */
+    public ArrayList<Word> topNGrams(int k)
+    {
+        k = Math.max(0, Math.min(k, counts.size()));
+        if (k == 0)
+        {
+            return new ArrayList<Word>();
+        }
+
+        // a min-heap of the k highest counts seen so far
+        int[] heap = new int[k];
+        int size = 0;
+        for (int slot = 0; slot < counts.capacity(); slot++)
+        {
+            int count = counts.countAt(slot);
+            if (count == 0)
+            {
+                continue;
+            }
+            if (size < k)
+            {
+                heap[size] = count;
+                siftUp(heap, size);
+                size++;
+            }
+            else if (count > heap[0])
+            {
+                heap[0] = count;
+                siftDown(heap, size);
+            }
+        }
+
+        int threshold = heap[0];
+        ArrayList<Word> top = new ArrayList<Word>();
+        for (int slot = 0; slot < counts.capacity(); slot++)
+        {
+            if (counts.countAt(slot) >= threshold)
+            {
+                top.add(new Word(textOf(counts.keyAt(slot)), counts.countAt(slot)));
+            }
+        }
+        top.sort((a, b) -> a.compareRankTo(b));
+        return new ArrayList<Word>(top.subList(0, k));
+    }
+
+    /**
+     * Prints out the k most frequent n-grams.
+     *
+     * @param k  the number of n-grams to be printed
+     */
+    public void printTopNGrams(int k)
+    {
+        ArrayList<Word> top = topNGrams(k);
+        StringBuilder out = new StringBuilder(top.size() * 32);
+        for (int index = 0; index < top.size(); index++)
+        {
+            out.append(top.get(index)).append('\n');
+        }
+        System.out.print(out);
+    }
+
+    /**
+     * Estimates how many bytes of memory the counts and the word IDs take
+     * up, including the words.
+     *
+     * @return the approximate size in bytes
+     */
+    public long memoryBytes()
+    {
+        return counts.memoryBytes() + words.memoryBytes();
+    }
+
+    /**
+     * Turns a packed key back into its words.
+     *
+     * @param packed  the key
+     * @return        the words, separated by spaces
+     */
+    private String textOf(long packed)
+    {
+        long idMask = (1L << bits) - 1;
+        StringBuilder text = new StringBuilder();
+        for (int i = n - 1; i >= 0; i--)
+        {
+            int id = (int)((packed >>> (i * bits)) & idMask) - 1;
+            if (text.length() > 0)
+            {
+                text.append(' ');
+            }
+            text.append(words.getWord(id));
+        }
+        return text.toString();
+    }
+
+    /**
+     * Moves the last count of a min-heap up to its place.
+     *
+     * @param heap      the heap
+     * @param position  the position of the new count
+     */
+    private static void siftUp(int[] heap, int position)
+    {
+        while (position > 0)
+        {
+            int parent = (position - 1) / 2;
+            if (heap[parent] <= heap[position])
+            {
+                return;
+            }
+            int count = heap[parent];
+            heap[parent] = heap[position];
+            heap[position] = count;
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves the first count of a min-heap down to its place.
+     *
+     * @param heap  the heap
+     * @param size  the number of counts in the heap
+     */
+    private static void siftDown(int[] heap, int size)
+    {
+        int position = 0;
+        while (true)
+        {
+            int child = 2 * position + 1;
+            if (child >= size)
+            {
+                return;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child])
+            {
+                child++;
+            }
+            if (heap[position] <= heap[child])
+            {
+                return;
+            }
+            int count = heap[child];
+            heap[child] = heap[position];
+            heap[position] = count;
+            position = child;
+        }
+    }
+
+    /**
+     * Entry point into NGramAnalysis.  It counts the n-grams of a book and
+     * prints the most frequent ones, with how long counting took and how
+     * much memory the counts take up.
+     *
+     * @param  args         the name of the book (MobyDick.txt if none is
+     *                      given), n (2 if none is given) and how many
+     *                      n-grams to print (10 if none is given)
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        int n = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int k = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        long start = System.nanoTime();
+        NGramAnalysis analysis = new NGramAnalysis(fileName, n);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        System.out.println(n + "-grams: " + analysis.sumNGrams() + " counted, "
+            + analysis.getNumberOfUniqueNGrams() + " different, from "
+            + analysis.getNumberOfUniqueWords() + " different words");
+        System.out.println("Counted in " + millis + " ms, using about "
+            + analysis.memoryBytes() / 1024 + " KB");
+        analysis.printTopNGrams(k);
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the words of a book on several threads.  The file is cut into
+ * byte ranges that start and end at white space, so no word is split
+ * between two ranges.  Each range is memory-mapped and tokenized by its
+ * own ForkJoinPool task into its own WordCountTable, and the tables are
+ * merged as the tasks are joined.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class ParallelBookReader
+{
+    // the smallest range worth giving to a task
+    private static final long MIN_RANGE = 64 * 1024;
+
+    // the largest range a task maps at once
+    private static final long MAX_RANGE = 64L * 1024 * 1024;
+
+    // how many ranges each thread gets, so idle threads can steal work
+    private static final int RANGES_PER_THREAD = 4;
+
+    // instance variables
+    private ForkJoinPool pool;    // runs the tasks
+
+    /**
+     * Constructor for a reader that uses the common ForkJoinPool.
+     */
+    public ParallelBookReader()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a reader that runs its tasks in pool.
+     *
+     * @param pool  the pool that runs the tasks
+     */
+    public ParallelBookReader(ForkJoinPool pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * Counts every word in the file.
+     *
+     * @param fileName    the pathname of the file
+     * @return            the words of the file and how often each appears
+     * @throws IOException file is not found or cannot be read
+     */
+    public WordCountTable read(String fileName) throws IOException
+    {
+        FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
+        try
+        {
+            long[] bounds = findBounds(channel);
+            return pool.invoke(new CountTask(channel, bounds, 0, bounds.length - 1));
+        }
+        catch (UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+        finally
+        {
+            channel.close();
+        }
+    }
+
+    /**
+     * Cuts the file into ranges that begin just after a white space byte.
+     * Range i runs from bounds[i] up to, but not including, bounds[i+1].
+     *
+     * @param channel  the open file
+     * @return         the starting position of every range, followed by
+     *                 the size of the file
+     * @throws IOException the file cannot be read
+     */
+    private long[] findBounds(FileChannel channel) throws IOException
+    {
+        long size = channel.size();
+        long rangeSize = size / ((long)pool.getParallelism() * RANGES_PER_THREAD);
+        rangeSize = Math.min(MAX_RANGE, Math.max(MIN_RANGE, rangeSize));
+
+        ArrayList<Long> bounds = new ArrayList<Long>();
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long start = 0;
+        bounds.add(start);
+        while (size - start > rangeSize)
+        {
+            long next = nextWordStart(channel, start + rangeSize, probe);
+            if (next >= size)
+            {
+                break;
+            }
+            bounds.add(next);
+            start = next;
+        }
+        bounds.add(size);
+
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++)
+        {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the position just after the first ASCII white space byte at
+     * or after position.  Such a byte always ends a word and is never
+     * part of a UTF-8 character.
+     *
+     * @param channel   the open file
+     * @param position  where to start looking
+     * @param probe     a buffer to read into
+     * @return          the position after the white space, or the size
+     *                  of the file if there is none
+     * @throws IOException the file cannot be read
+     */
+    private static long nextWordStart(FileChannel channel, long position, ByteBuffer probe)
+        throws IOException
+    {
+        while (true)
+        {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0)
+            {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++)
+            {
+                byte b = probe.get(i);
+                if (b >= 0 && Character.isWhitespace((char)b))
+                {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Counts the words in a run of ranges, splitting the run in half
+     * until only one range is left.
+     */
+    private static class CountTask extends RecursiveTask<WordCountTable>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private FileChannel channel;   // the open file
+        private long[] bounds;         // where every range starts
+        private int first;             // the first range to count
+        private int end;               // one past the last range to count
+
+        /**
+         * Constructor for a task that counts ranges first up to end.
+         *
+         * @param channel  the open file
+         * @param bounds   where every range starts
+         * @param first    the first range to count
+         * @param end      one past the last range to count
+         */
+        CountTask(FileChannel channel, long[] bounds, int first, int end)
+        {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.first = first;
+            this.end = end;
+        }
+
+        /**
+         * Counts the ranges, merging the counts of the two halves.
+         *
+         * @return the words of the ranges and how often each appears
+         */
+        protected WordCountTable compute()
+        {
+            if (end - first > 1)
+            {
+                int mid = (first + end) / 2;
+                CountTask left = new CountTask(channel, bounds, first, mid);
+                CountTask right = new CountTask(channel, bounds, mid, end);
+                left.fork();
+                WordCountTable counts = right.compute();
+                WordCountTable other = left.join();
+                if (other.size() > counts.size())
+                {
+                    other.addAll(counts);
+                    return other;
+                }
+                counts.addAll(other);
+                return counts;
+            }
+
+            WordCountTable counts = new WordCountTable();
+            if (first < end)
+            {
+                WordTokenizer tokenizer = new WordTokenizer(counts);
+                try
+                {
+                    long start = bounds[first];
+                    tokenizer.feed(channel.map(FileChannel.MapMode.READ_ONLY,
+                        start, bounds[end] - start));
+                }
+                catch (IOException e)
+                {
+                    throw new UncheckedIOException(e);
+                }
+                tokenizer.finish();
+            }
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,381 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Counts the words of a book, which may be compressed, in three stages
+ * running on three threads at once:
+ *      reading      a reader thread reads the file, decompressing it if
+ *                   its name ends in .gz or .zip, into blocks of bytes
+ *      tokenizing   a tokenizer thread splits the blocks into words with
+ *                   a WordTokenizer and copies the words into batches
+ *      counting     the calling thread counts the batches of words in a
+ *                   WordCountTable
+ * so that decompressing one block goes on while the words of the last
+ * one are being split and counted.
+ *
+ * The stages hand blocks and batches to each other through bounded
+ * queues, and hand them back through a second queue once they are done
+ * with them.  Only BLOCKS blocks and BATCHES batches are ever made, so a
+ * fast stage waits for a slow one rather than buffering the whole book.
+ *
+ * Every file in a .zip archive is counted, as if the files were one
+ * book; no word runs from the end of one file into the next.
+ *
+ * A reader reads one book at a time.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class PipelinedBookReader
+{
+    // size of each block of bytes
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    // number of blocks, and of batches, passed between the stages
+    private static final int BLOCKS = 4;
+    private static final int BATCHES = 4;
+
+    // number of words in a batch
+    private static final int BATCH_WORDS = 8192;
+
+    // instance variables: the queues between the stages
+    private BlockingQueue<Block> freeBlocks;
+    private BlockingQueue<Block> fullBlocks;
+    private BlockingQueue<Batch> freeBatches;
+    private BlockingQueue<Batch> fullBatches;
+    private volatile IOException failure;    // why the reader stopped, if it failed
+
+    /**
+     * Counts every word in the file.  A file whose name ends in .gz is
+     * read as gzip data, and one whose name ends in .zip as a zip archive;
+     * any other file is read as it is.
+     *
+     * @param fileName    the pathname of the file
+     * @return            the words of the file and how often each appears
+     * @throws IOException file is not found, cannot be read or cannot be
+     *                     decompressed
+     */
+    public WordCountTable read(String fileName) throws IOException
+    {
+        freeBlocks = new ArrayBlockingQueue<Block>(BLOCKS);
+        fullBlocks = new ArrayBlockingQueue<Block>(BLOCKS);
+        freeBatches = new ArrayBlockingQueue<Batch>(BATCHES);
+        fullBatches = new ArrayBlockingQueue<Batch>(BATCHES);
+        for (int i = 0; i < BLOCKS; i++)
+        {
+            freeBlocks.add(new Block());
+        }
+        for (int i = 0; i < BATCHES; i++)
+        {
+            freeBatches.add(new Batch());
+        }
+        failure = null;
+
+        Thread reader = new Thread(() -> readStage(fileName), "book-reader");
+        Thread tokenizer = new Thread(this::tokenizeStage, "book-tokenizer");
+        reader.setDaemon(true);
+        tokenizer.setDaemon(true);
+        reader.start();
+        tokenizer.start();
+
+        WordCountTable counts = new WordCountTable();
+        try
+        {
+            countStage(counts);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while counting " + fileName);
+        }
+        finally
+        {
+            // stops the other stages if counting did not get to the end
+            reader.interrupt();
+            tokenizer.interrupt();
+        }
+        if (failure != null)
+        {
+            throw failure;
+        }
+        return counts;
+    }
+
+    /**
+     * The reading stage: fills free blocks with the bytes of the file and
+     * passes them on, then passes on a last, empty block.
+     *
+     * @param fileName  the pathname of the file
+     */
+    private void readStage(String fileName)
+    {
+        try
+        {
+            InputStream in = new FileInputStream(fileName);
+            try
+            {
+                String lower = fileName.toLowerCase();
+                if (lower.endsWith(".gz"))
+                {
+                    in = new GZIPInputStream(in, BLOCK_SIZE);
+                    readEntry(in);
+                }
+                else if (lower.endsWith(".zip"))
+                {
+                    ZipInputStream zip = new ZipInputStream(in);
+                    in = zip;
+                    for (ZipEntry entry = zip.getNextEntry(); entry != null;
+                         entry = zip.getNextEntry())
+                    {
+                        if (!entry.isDirectory())
+                        {
+                            readEntry(zip);
+                        }
+                    }
+                }
+                else
+                {
+                    readEntry(in);
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            failure = e;
+        }
+        catch (InterruptedException e)
+        {
+            // counting stopped early; nobody is waiting for more blocks
+            return;
+        }
+
+        try
+        {
+            Block last = freeBlocks.take();
+            last.length = 0;
+            last.endOfText = true;
+            last.last = true;
+            fullBlocks.put(last);
+        }
+        catch (InterruptedException e)
+        {
+            return;
+        }
+    }
+
+    /**
+     * Reads one stream, such as one file of an archive, into blocks.  The
+     * last block of the stream is marked as the end of its text.
+     *
+     * @param in  the stream
+     * @throws IOException          the stream cannot be read
+     * @throws InterruptedException the stage was stopped while waiting
+     */
+    private void readEntry(InputStream in) throws IOException, InterruptedException
+    {
+        boolean more = true;
+        while (more)
+        {
+            Block block = freeBlocks.take();
+            block.length = 0;
+            block.last = false;
+            // fill the block, so each handoff carries as much as it can
+            while (block.length < BLOCK_SIZE)
+            {
+                int n = in.read(block.bytes, block.length, BLOCK_SIZE - block.length);
+                if (n < 0)
+                {
+                    more = false;
+                    break;
+                }
+                block.length += n;
+            }
+            block.endOfText = !more;
+            fullBlocks.put(block);
+        }
+    }
+
+    /**
+     * The tokenizing stage: splits each block into words, copying them
+     * into batches, and gives the block back.  Each batch is passed on
+     * when it is full, and a last batch when the last block has been split.
+     */
+    private void tokenizeStage()
+    {
+        BatchingSink sink = new BatchingSink();
+        WordTokenizer tokenizer = new WordTokenizer(sink);
+        try
+        {
+            sink.batch = freeBatches.take();
+            while (true)
+            {
+                Block block = fullBlocks.take();
+                tokenizer.feed(ByteBuffer.wrap(block.bytes, 0, block.length));
+                if (block.endOfText)
+                {
+                    tokenizer.finish();
+                }
+                boolean last = block.last;
+                freeBlocks.put(block);
+                if (last)
+                {
+                    sink.batch.last = true;
+                    fullBatches.put(sink.batch);
+                    return;
+                }
+            }
+        }
+        catch (InterruptedException e)
+        {
+            // counting stopped early
+        }
+    }
+
+    /**
+     * The counting stage: counts the words of each batch and gives the
+     * batch back, until the last batch.
+     *
+     * @param counts  where the words are counted
+     * @throws InterruptedException the thread was interrupted while waiting
+     */
+    private void countStage(WordCountTable counts) throws InterruptedException
+    {
+        while (true)
+        {
+            Batch batch = fullBatches.take();
+            for (int i = 0; i < batch.size; i++)
+            {
+                counts.add(batch.chars, batch.offsets[i], batch.lengths[i]);
+            }
+            boolean last = batch.last;
+            batch.clear();
+            freeBatches.put(batch);
+            if (last)
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Bytes read from the file, passed from the reading stage to the
+     * tokenizing stage.
+     */
+    private static class Block
+    {
+        // instance variables
+        private byte[] bytes = new byte[BLOCK_SIZE];
+        private int length;           // number of bytes in use
+        private boolean endOfText;    // whether the text of a file ends here
+        private boolean last;         // whether no more blocks follow
+    }
+
+    /**
+     * Words, passed from the tokenizing stage to the counting stage.  The
+     * characters of all the words are packed into one array.
+     */
+    private static class Batch
+    {
+        // instance variables
+        private char[] chars = new char[BATCH_WORDS * 8];
+        private int[] offsets = new int[BATCH_WORDS];
+        private int[] lengths = new int[BATCH_WORDS];
+        private int size;             // number of words
+        private int used;             // number of characters in use
+        private boolean last;         // whether no more batches follow
+
+        /**
+         * Empties the batch so it can be filled again.
+         */
+        private void clear()
+        {
+            size = 0;
+            used = 0;
+            last = false;
+        }
+
+        /**
+         * Returns whether a word of the given length still fits.
+         *
+         * @param length  the number of characters in the word
+         * @return true if it fits; otherwise, false
+         */
+        private boolean fits(int length)
+        {
+            return size < offsets.length && used + length <= chars.length;
+        }
+    }
+
+    /**
+     * The TokenSink of the tokenizing stage, which copies each word into
+     * the current batch, passing the batch on when it is full.
+     */
+    private class BatchingSink implements TokenSink
+    {
+        // instance variables
+        private Batch batch;    // the batch being filled
+
+        /**
+         * Copies a word into the batch.
+         *
+         * @param text    the characters holding the word
+         * @param offset  the position of the first character of the word
+         * @param length  the number of characters in the word
+         */
+        public void token(char[] text, int offset, int length)
+        {
+            if (!batch.fits(length))
+            {
+                try
+                {
+                    fullBatches.put(batch);
+                    batch = freeBatches.take();
+                }
+                catch (InterruptedException e)
+                {
+                    // let tokenizeStage see that it was stopped
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (length > batch.chars.length)
+                {
+                    batch.chars = new char[length];
+                }
+            }
+            System.arraycopy(text, offset, batch.chars, batch.used, length);
+            batch.offsets[batch.size] = batch.used;
+            batch.lengths[batch.size] = length;
+            batch.size++;
+            batch.used += length;
+        }
+    }
+
+    /**
+     * Entry point into PipelinedBookReader.  It counts the words of a
+     * book, which may be compressed, and reports how long that took.
+     *
+     * @param  args         the name of the book (MobyDick.txt if none is given)
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        long start = System.nanoTime();
+        WordCountTable counts = new PipelinedBookReader().read(fileName);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println(counts.total() + " words, " + counts.size() + " different, in "
+            + millis + " ms");
+    }
+}
@@ -0,0 +1,309 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the results of recent queries, keyed by the name of the
+ * query and its parameter, so that asking the same question again does
+ * not compute the answer again.
+ *
+ * The cache holds at most capacity results and decides which to keep
+ * the way W-TinyLFU does:
+ *      a new result goes into a small window, about 1% of the capacity,
+ *      kept in least recently used order
+ *      the result pushed out of the window may only take the place of the
+ *      least recently used result of the main part if its query has been
+ *      asked more often; otherwise it is dropped
+ * How often each query has been asked is estimated with a CountMinSketch,
+ * halved every 10 * capacity queries so that old popularity fades.  A few
+ * hot queries thus stay cached even when many one-off queries pass by.
+ *
+ * invalidate drops every result; WordAnalysis calls it whenever its
+ * words change.  The counts of hits, misses, evictions and invalidations
+ * are kept from the start.
+ *
+ * Like WordAnalysis, a cache is not safe to use from several threads.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class QueryCache
+{
+    // stands for a result of null, which cannot be stored in the maps
+    private static final Object NO_RESULT = new Object();
+
+    // number of rows in the frequency sketch
+    private static final int DEPTH = 4;
+
+    // instance variables
+    private int capacity;
+    private int windowCapacity;
+    private LinkedHashMap<Key, Object> window;  // newest results, in access order
+    private LinkedHashMap<Key, Object> main;    // admitted results, in access order
+    private CountMinSketch frequencies;         // how often each key is asked for
+    private int sampleSize;                     // queries between halvings
+    private int sampled;                        // queries since the last halving
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Constructor for an empty cache.
+     *
+     * @param capacity  the most results to keep; 0 keeps none
+     */
+    public QueryCache(int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("The capacity cannot be negative.");
+        }
+        this.capacity = capacity;
+        windowCapacity = Math.min(capacity, Math.max(1, capacity / 100));
+        window = new LinkedHashMap<Key, Object>(16, 0.75f, true);
+        main = new LinkedHashMap<Key, Object>(16, 0.75f, true);
+        frequencies = new CountMinSketch(Math.max(64, 4 * capacity), DEPTH);
+        sampleSize = Math.max(64, 10 * capacity);
+    }
+
+    /**
+     * Retrieve the result of a query, computing it and keeping it if it
+     * is not in the cache.
+     *
+     * @param <V>        the type of the result
+     * @param query      the name of the query
+     * @param parameter  what the query is asked about; may be null
+     * @param compute    computes the result when it is not cached
+     * @return           the result, which may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(String query, Object parameter, Supplier<V> compute)
+    {
+        Key key = new Key(query, parameter);
+        frequencies.add(key.hashCode());
+        sampled++;
+        if (sampled >= sampleSize)
+        {
+            frequencies.halve();
+            sampled /= 2;
+        }
+
+        Object cached = window.get(key);
+        if (cached == null)
+        {
+            cached = main.get(key);
+        }
+        if (cached != null)
+        {
+            hits++;
+            return cached == NO_RESULT ? null : (V)cached;
+        }
+
+        misses++;
+        V result = compute.get();
+        if (capacity > 0)
+        {
+            put(key, result == null ? NO_RESULT : result);
+        }
+        return result;
+    }
+
+    /**
+     * Drops every result, because the data they were computed from has
+     * changed.
+     */
+    public void invalidate()
+    {
+        window.clear();
+        main.clear();
+        invalidations++;
+    }
+
+    /**
+     * Retrieve the number of results being kept.
+     *
+     * @return the number of results
+     */
+    public int size()
+    {
+        return window.size() + main.size();
+    }
+
+    /**
+     * Retrieve the most results the cache keeps.
+     *
+     * @return the capacity
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     * Retrieve how many queries were answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * Retrieve how many queries had to be computed.
+     *
+     * @return the number of misses
+     */
+    public long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * Retrieve how many results were dropped to make room for others.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Retrieve how many times every result was dropped by invalidate.
+     *
+     * @return the number of invalidations
+     */
+    public long getInvalidations()
+    {
+        return invalidations;
+    }
+
+    /**
+     * Retrieve the share of queries answered from the cache.
+     *
+     * @return hits divided by all queries; 0 if there were none
+     */
+    public double getHitRate()
+    {
+        long queries = hits + misses;
+        return queries == 0 ? 0.0 : (double)hits / queries;
+    }
+
+    /**
+     * Builds a one-line report of the counts.
+     *
+     * @return the report
+     */
+    public String report()
+    {
+        return String.format("Query cache: %d hits, %d misses (%.1f%% hit rate), %d evictions, "
+            + "%d invalidations, %d of %d entries used\n", hits, misses, 100.0 * getHitRate(),
+            evictions, invalidations, size(), capacity);
+    }
+
+    /**
+     * Keeps a new result in the window, moving the window's least
+     * recently used result into the main part if it wins its place there.
+     *
+     * @param key     the query and parameter
+     * @param result  the result, never null
+     */
+    private void put(Key key, Object result)
+    {
+        window.put(key, result);
+        if (window.size() <= windowCapacity)
+        {
+            return;
+        }
+
+        Map.Entry<Key, Object> candidate = removeEldest(window);
+        if (main.size() < capacity - windowCapacity)
+        {
+            main.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+
+        evictions++;
+        if (main.isEmpty())
+        {
+            return;
+        }
+        Key victim = main.keySet().iterator().next();
+        if (frequencies.estimate(candidate.getKey().hashCode())
+            > frequencies.estimate(victim.hashCode()))
+        {
+            main.remove(victim);
+            main.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Takes the least recently used entry out of a map in access order.
+     *
+     * @param map  the map, which is not empty
+     * @return     the entry taken out
+     */
+    private static Map.Entry<Key, Object> removeEldest(LinkedHashMap<Key, Object> map)
+    {
+        Iterator<Map.Entry<Key, Object>> entries = map.entrySet().iterator();
+        Map.Entry<Key, Object> eldest = entries.next();
+        Map.Entry<Key, Object> copy = Map.entry(eldest.getKey(), eldest.getValue());
+        entries.remove();
+        return copy;
+    }
+
+    /**
+     * The name of a query and its parameter.
+     */
+    private static final class Key
+    {
+        // instance variables
+        private final String query;
+        private final Object parameter;
+        private final int hash;
+
+        /**
+         * Constructor for a key.
+         *
+         * @param query      the name of the query
+         * @param parameter  what it is asked about; may be null
+         */
+        private Key(String query, Object parameter)
+        {
+            this.query = query;
+            this.parameter = parameter;
+            hash = 31 * query.hashCode() + Objects.hashCode(parameter);
+        }
+
+        /**
+         * Returns whether another object is the same query with the same
+         * parameter.
+         *
+         * @param other  the other object
+         * @return       true if they are equal; otherwise, false
+         */
+        public boolean equals(Object other)
+        {
+            if (!(other instanceof Key))
+            {
+                return false;
+            }
+            Key key = (Key)other;
+            return query.equals(key.query) && Objects.equals(parameter, key.parameter);
+        }
+
+        /**
+         * Retrieve the hash code of the key.
+         *
+         * @return the hash code
+         */
+        public int hashCode()
+        {
+            return hash;
+        }
+    }
+}
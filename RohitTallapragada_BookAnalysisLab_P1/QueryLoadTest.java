@@ -0,0 +1,193 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Puts a QueryServer under load and reports how long its answers take.
+ *
+ * A number of client threads send a mix of queries (mostly find, with
+ * top, sumtop, quotient, total and unique) as fast as they can.  At the
+ * same time another thread keeps re-sorting the book and publishing a
+ * new index, to show that doing so does not hold up the queries.
+ *
+ * Usage:  java QueryLoadTest [book] [clients] [requestsPerClient]
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class QueryLoadTest
+{
+    /**
+     * Entry point into QueryLoadTest.
+     *
+     * @param  args  the book, the number of clients and the number of
+     *               requests each client sends
+     * @throws Exception if the book cannot be read or the server fails
+     */
+    public static void main(String[] args) throws Exception
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        QueryServer.useNoDelay();
+
+        WordAnalysis analysis = new WordAnalysis(fileName, IngestMode.MAPPED);
+        WordIndex first = analysis.toIndex();
+        ArrayList<Word> words = first.topWords(first.getNumberOfUniqueWords());
+        String[] vocabulary = new String[words.size()];
+        for (int index = 0; index < vocabulary.length; index++)
+        {
+            vocabulary[index] = words.get(index).getWord();
+        }
+
+        QueryServer server = new QueryServer(0, clients);
+        server.publish(first);
+        server.start();
+        String base = "http://localhost:" + server.getPort();
+
+        // keeps rearranging the book and publishing it while the
+        // clients are querying
+        Thread publisher = new Thread(() -> {
+            boolean byFrequency = false;
+            while (!Thread.currentThread().isInterrupted())
+            {
+                if (byFrequency)
+                {
+                    analysis.sortFrequencyByCounting();
+                }
+                else
+                {
+                    analysis.sortWords();
+                }
+                byFrequency = !byFrequency;
+                server.publish(analysis);
+            }
+        });
+        publisher.setDaemon(true);
+
+        long[][] latencies = new long[clients][requests];
+        Thread[] threads = new Thread[clients];
+        for (int c = 0; c < clients; c++)
+        {
+            long[] mine = latencies[c];
+            Random random = new Random(c);
+            threads[c] = new Thread(() -> {
+                for (int r = 0; r < requests; r++)
+                {
+                    String path = pickQuery(random, vocabulary);
+                    long start = System.nanoTime();
+                    get(base + path);
+                    mine[r] = System.nanoTime() - start;
+                }
+            });
+        }
+
+        // one round to warm up, which is not counted
+        for (int r = 0; r < 200; r++)
+        {
+            get(base + pickQuery(new Random(r), vocabulary));
+        }
+
+        publisher.start();
+        long began = System.nanoTime();
+        for (int c = 0; c < clients; c++)
+        {
+            threads[c].start();
+        }
+        for (int c = 0; c < clients; c++)
+        {
+            threads[c].join();
+        }
+        double seconds = (System.nanoTime() - began) / 1e9;
+        publisher.interrupt();
+        server.stop(0);
+
+        long[] all = new long[clients * requests];
+        for (int c = 0; c < clients; c++)
+        {
+            System.arraycopy(latencies[c], 0, all, c * requests, requests);
+        }
+        Arrays.sort(all);
+        System.out.printf("%d clients, %d requests in %.2f s (%.0f requests/s)%n",
+            clients, all.length, seconds, all.length / seconds);
+        System.out.printf("p50 %.3f ms   p99 %.3f ms   max %.3f ms%n",
+            percentile(all, 50) / 1e6, percentile(all, 99) / 1e6,
+            all[all.length - 1] / 1e6);
+    }
+
+    /**
+     * Picks the path of a query at random.
+     *
+     * @param random      where the choices come from
+     * @param vocabulary  the words that can be looked up
+     * @return            the path and parameters of the query
+     */
+    private static String pickQuery(Random random, String[] vocabulary)
+    {
+        int kind = random.nextInt(10);
+        int n = 1 + random.nextInt(100);
+        if (kind < 5)
+        {
+            return "/find?word=" + vocabulary[random.nextInt(vocabulary.length)];
+        }
+        else if (kind == 5)
+        {
+            return "/top?n=" + n;
+        }
+        else if (kind == 6)
+        {
+            return "/sumtop?n=" + n;
+        }
+        else if (kind == 7)
+        {
+            return "/quotient?n=" + n;
+        }
+        else if (kind == 8)
+        {
+            return "/total";
+        }
+        return "/unique";
+    }
+
+    /**
+     * Sends a GET request and reads the whole answer.
+     *
+     * @param address  the URL of the query
+     */
+    private static void get(String address)
+    {
+        try
+        {
+            HttpURLConnection connection = (HttpURLConnection)new URL(address).openConnection();
+            InputStream in = connection.getResponseCode() < 400
+                ? connection.getInputStream() : connection.getErrorStream();
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0)
+            {
+                // read to the end so the connection can be reused
+            }
+            in.close();
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Request to " + address + " failed.", e);
+        }
+    }
+
+    /**
+     * Finds a percentile of sorted values.
+     *
+     * @param sorted   the values, smallest first
+     * @param percent  the percentile wanted
+     * @return         the value that percent of the values are at most
+     */
+    private static long percentile(long[] sorted, double percent)
+    {
+        int index = (int)Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,321 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A small HTTP server on localhost that answers queries about a book.
+ *
+ * Queries are answered from the WordIndex most recently published.  A
+ * new index is swapped in with a single atomic write, so requests never
+ * wait on whoever is sorting or reading the book: a request that started
+ * before the swap finishes with the old index, and the next one sees the
+ * new index.
+ *
+ * Every answer is JSON.  The paths are:
+ *      GET /total              {"total":211806}
+ *      GET /unique             {"unique":20015}
+ *      GET /find?word=whale    {"word":"whale","index":19407,"frequency":955}
+ *      GET /top?n=3            {"top":[{"word":"the","frequency":14321},...]}
+ *      GET /sumtop?n=10        {"sumtop":...}, sumTopWords(10)
+ *      GET /quotient?n=10      {"quotient":...}, getWordQuotient(10)
+ *
+ * Answers are small, so unless the JVM's HTTP server sets TCP_NODELAY,
+ * each one waits on the client's delayed acknowledgement (about 40 ms).
+ * Run with -Dsun.net.httpserver.nodelay=true; the JDK reads it once, when
+ * the first HttpServer of the JVM is made, so main sets it before then.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class QueryServer
+{
+    // instance variables
+    private HttpServer server;
+    private ExecutorService executor;
+    private AtomicReference<WordIndex> current;   // null until the first publish
+
+    /**
+     * Constructor for a server on a port of the loopback address.  It does
+     * not answer requests until start is called.
+     *
+     * @param port     the port to listen on, or 0 for any free port
+     * @param threads  how many requests are answered at the same time
+     * @throws IOException the port cannot be bound
+     */
+    public QueryServer(int port, int threads) throws IOException
+    {
+        current = new AtomicReference<WordIndex>();
+        server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts answering requests.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Stops answering requests, waiting at most delaySeconds for the
+     * requests already being answered.
+     *
+     * @param delaySeconds  the longest time to wait
+     */
+    public void stop(int delaySeconds)
+    {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Retrieve the port the server listens on.
+     *
+     * @return the port
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Makes index the one used for every request from now on.
+     *
+     * @param index  the words to be queried
+     */
+    public void publish(WordIndex index)
+    {
+        current.set(index);
+    }
+
+    /**
+     * Takes an index of the words of analysis as they are now and
+     * publishes it.  analysis must not be changed by another thread
+     * while this runs.
+     *
+     * @param analysis  the book to be queried
+     */
+    public void publish(WordAnalysis analysis)
+    {
+        publish(analysis.toIndex());
+    }
+
+    /**
+     * Answers one request.
+     *
+     * @param exchange  the request and its response
+     * @throws IOException the response cannot be sent
+     */
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        int status = 200;
+        String body;
+        WordIndex index = current.get();
+        try
+        {
+            if (!exchange.getRequestMethod().equals("GET"))
+            {
+                status = 405;
+                body = error("Only GET is supported.");
+            }
+            else if (index == null)
+            {
+                status = 503;
+                body = error("No book has been published yet.");
+            }
+            else
+            {
+                body = answer(index, exchange.getRequestURI().getPath(),
+                    parameters(exchange.getRequestURI().getRawQuery()));
+                if (body == null)
+                {
+                    status = 404;
+                    body = error("Unknown query " + exchange.getRequestURI().getPath() + ".");
+                }
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            status = 400;
+            body = error(e.getMessage());
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try
+        {
+            out.write(bytes);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Answers a query from one index.
+     *
+     * @param index       the words being queried
+     * @param path        the path of the request
+     * @param parameters  the parameters of the request
+     * @return            the answer as JSON, or null if the path is unknown
+     * @throws IllegalArgumentException a parameter is missing or wrong
+     */
+    private static String answer(WordIndex index, String path,
+                                 HashMap<String, String> parameters)
+    {
+        StringBuilder json = new StringBuilder();
+        if (path.equals("/total"))
+        {
+            json.append("{\"total\":").append(index.sumWords());
+        }
+        else if (path.equals("/unique"))
+        {
+            json.append("{\"unique\":").append(index.getNumberOfUniqueWords());
+        }
+        else if (path.equals("/find"))
+        {
+            String word = parameters.get("word");
+            if (word == null)
+            {
+                throw new IllegalArgumentException("The word parameter is missing.");
+            }
+            word = word.toLowerCase();
+            json.append("{\"word\":");
+            BatchQueries.appendString(json, word);
+            json.append(",\"index\":").append(index.findWord(word));
+            json.append(",\"frequency\":").append(index.frequencyOf(word));
+        }
+        else if (path.equals("/top"))
+        {
+            json.append("{\"top\":").append(
+                BatchQueries.wordsToJson(index.topWords(number(parameters))));
+        }
+        else if (path.equals("/sumtop"))
+        {
+            json.append("{\"sumtop\":").append(index.sumTopWords(number(parameters)));
+        }
+        else if (path.equals("/quotient"))
+        {
+            json.append("{\"quotient\":").append(index.getWordQuotient(number(parameters)));
+        }
+        else
+        {
+            return null;
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Reads the n parameter.
+     *
+     * @param parameters  the parameters of the request
+     * @return            the value of n
+     * @throws IllegalArgumentException n is missing or is not a whole
+     *                                  number of at least 0
+     */
+    private static int number(HashMap<String, String> parameters)
+    {
+        try
+        {
+            int n = Integer.parseInt(parameters.get("n"));
+            if (n >= 0)
+            {
+                return n;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // reported below
+        }
+        throw new IllegalArgumentException("n has to be a whole number of at least 0.");
+    }
+
+    /**
+     * Splits the query part of a URI into its parameters.
+     *
+     * @param rawQuery  the query part, still encoded, or null
+     * @return          the decoded parameters, by name
+     */
+    private static HashMap<String, String> parameters(String rawQuery)
+    {
+        HashMap<String, String> parameters = new HashMap<String, String>();
+        if (rawQuery != null)
+        {
+            for (String pair : rawQuery.split("&"))
+            {
+                int equals = pair.indexOf('=');
+                if (equals > 0)
+                {
+                    parameters.put(
+                        URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Writes an error message as JSON.
+     *
+     * @param message  what went wrong
+     * @return         the JSON object
+     */
+    private static String error(String message)
+    {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        BatchQueries.appendString(json, message);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Asks the JVM's HTTP server to set TCP_NODELAY, unless the command
+     * line already decided.  Only takes effect if called before the first
+     * HttpServer of the JVM is made, so only entry points call it.
+     */
+    static void useNoDelay()
+    {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+        {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /**
+     * Entry point into QueryServer.  It reads a book and answers queries
+     * about it until the program is stopped.  The arguments are the book
+     * and, optionally, the port.
+     *
+     * @param  args         the book and the port
+     * @throws IOException  if the book cannot be read or the port bound
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        useNoDelay();
+
+        QueryServer server = new QueryServer(port,
+            Runtime.getRuntime().availableProcessors() * 2);
+        server.publish(new WordAnalysis(fileName, IngestMode.MAPPED));
+        server.start();
+        System.out.println("Answering queries about " + fileName
+            + " on http://localhost:" + server.getPort() + "/");
+    }
+}
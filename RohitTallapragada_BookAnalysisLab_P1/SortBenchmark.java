@@ -0,0 +1,62 @@
+import java.io.IOException;
+
+/**
+ * Times the merge sort in WordAnalysis.sortFrequency against the
+ * counting sort in sortFrequencyByCounting, starting each run from the
+ * alphabetical words list, and checks that both give the same
+ * frequencies in the same positions.  Both are timed with a
+ * BenchmarkTimer, and only the sorts themselves are timed.
+ *
+ * Run main with the name of a book (MobyDick.txt if none is given) and,
+ * optionally, how many timed runs to make of each sort.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class SortBenchmark
+{
+    /**
+     * Entry point into SortBenchmark.
+     *
+     * @param  args         the name of the book and the number of timed runs
+     * @throws IOException  if file with the text cannot be found
+     */
+    public static void main(String[] args) throws IOException
+    {
+        String fileName = args.length > 0 ? args[0] : "MobyDick.txt";
+        int runs = 20;
+        if (args.length > 1)
+        {
+            runs = Integer.parseInt(args[1]);
+        }
+
+        BenchmarkTimer timer = new BenchmarkTimer(0, runs);
+        WordAnalysis merged = new WordAnalysis(fileName, IngestMode.STREAMING);
+        BenchmarkTimer.Result mergeResult = timer.time(
+            () -> { merged.sortWords(); return 0; },
+            () -> { merged.sortFrequency(); return merged.sumTopWords(1); });
+
+        // the counting sort's order is kept until the words change, so
+        // each run needs a fresh analysis
+        WordAnalysis[] counted = new WordAnalysis[1];
+        BenchmarkTimer.Result countingResult = timer.time(
+            () ->
+            {
+                counted[0] = new WordAnalysis(fileName, IngestMode.STREAMING);
+                counted[0].sortWords();
+                return 0;
+            },
+            () -> { counted[0].sortFrequencyByCounting(); return counted[0].sumTopWords(1); });
+
+        for (int index = 0; index < merged.getNumberOfUniqueWords(); index++)
+        {
+            if (merged.sumTopWords(index + 1) != counted[0].sumTopWords(index + 1))
+            {
+                throw new IllegalStateException("The sorts differ at index " + index + ".");
+            }
+        }
+        System.out.printf("%-24s %10.3f ms\n", "sortFrequency", mergeResult.getBestMillis());
+        System.out.printf("%-24s %10.3f ms\n", "sortFrequencyByCounting",
+            countingResult.getBestMillis());
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * Receives the words found by a WordTokenizer.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public interface TokenSink
+{
+    /**
+     * Accepts one cleaned up, lower case word.  The characters are only
+     * valid until this method returns, since the tokenizer reuses them
+     * for the next word.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    void token(char[] text, int offset, int length);
+}
@@ -0,0 +1,298 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact trie of the words of a book and their frequencies, stored
+ * in a few primitive arrays rather than as one String and one Word object
+ * per word.
+ *
+ * The nodes are numbered in breadth-first order, with the root as node 0,
+ * so the children of a node are numbered one after another and are sorted
+ * by their labels.  For each node the arrays hold:
+ *      label[n]       the character on the edge into n
+ *      firstChild[n]  the number of the first child of n; the children of
+ *                     n run up to, but not including, firstChild[n+1]
+ *      frequency[n]   how often the word spelled from the root to n
+ *                     appears, or 0 if that is not a word
+ *
+ * Words may only use ASCII characters, which is all WordTokenizer and
+ * cleanUp produce.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class VocabularyTrie
+{
+    // instance variables
+    private byte[] label;
+    private int[] firstChild;
+    private int[] frequency;
+    private int nodes;       // number of nodes, including the root
+    private int size;        // number of words
+
+    /**
+     * Constructor for a trie holding the given words.
+     *
+     * @param sorted  the words, in lexicographic order with no repeats
+     */
+    public VocabularyTrie(List<Word> sorted)
+    {
+        int capacity = Math.max(16, sorted.size() * 4);
+        label = new byte[capacity];
+        firstChild = new int[capacity + 1];
+        frequency = new int[capacity];
+        size = sorted.size();
+
+        // each node in the queue covers the run of sorted words from
+        // low up to high that share its first depth characters
+        int[] low = new int[capacity];
+        int[] high = new int[capacity];
+        int[] depth = new int[capacity];
+        low[0] = 0;
+        high[0] = sorted.size();
+        nodes = 1;
+
+        for (int n = 0; n < nodes; n++)
+        {
+            int lo = low[n];
+            int d = depth[n];
+            if (lo < high[n] && sorted.get(lo).getWord().length() == d)
+            {
+                frequency[n] = sorted.get(lo).getFrequency();
+                lo++;
+            }
+            firstChild[n] = nodes;
+            while (lo < high[n])
+            {
+                char c = sorted.get(lo).getWord().charAt(d);
+                if (c > 127)
+                {
+                    throw new IllegalArgumentException("Only ASCII words can be stored.");
+                }
+                int hi = lo + 1;
+                while (hi < high[n] && sorted.get(hi).getWord().charAt(d) == c)
+                {
+                    hi++;
+                }
+                if (nodes == label.length)
+                {
+                    int bigger = label.length * 2;
+                    label = Arrays.copyOf(label, bigger);
+                    firstChild = Arrays.copyOf(firstChild, bigger + 1);
+                    frequency = Arrays.copyOf(frequency, bigger);
+                    low = Arrays.copyOf(low, bigger);
+                    high = Arrays.copyOf(high, bigger);
+                    depth = Arrays.copyOf(depth, bigger);
+                }
+                label[nodes] = (byte)c;
+                low[nodes] = lo;
+                high[nodes] = hi;
+                depth[nodes] = d + 1;
+                nodes++;
+                lo = hi;
+            }
+        }
+        firstChild[nodes] = nodes;
+
+        label = Arrays.copyOf(label, nodes);
+        firstChild = Arrays.copyOf(firstChild, nodes + 1);
+        frequency = Arrays.copyOf(frequency, nodes);
+    }
+
+    /**
+     * Retrieve how often a word appears.
+     *
+     * @param word  the word of interest
+     * @return      how often the word appears; 0 if it is not in the trie
+     */
+    public int getFrequency(String word)
+    {
+        int n = find(word);
+        return n < 0 ? 0 : frequency[n];
+    }
+
+    /**
+     * Finds every word that starts with prefix.
+     *
+     * @param prefix  the characters the words have to start with
+     * @return        the words, with their frequencies, in lexicographic order
+     */
+    public ArrayList<Word> wordsWithPrefix(String prefix)
+    {
+        ArrayList<Word> found = new ArrayList<Word>();
+        int n = find(prefix);
+        if (n >= 0)
+        {
+            collect(n, new StringBuilder(prefix), null, null, found);
+        }
+        return found;
+    }
+
+    /**
+     * Finds every word from "from" up to, but not including, "to".
+     *
+     * @param from  the smallest word wanted
+     * @param to    the word just past the largest word wanted
+     * @return      the words, with their frequencies, in lexicographic order
+     */
+    public ArrayList<Word> wordsInRange(String from, String to)
+    {
+        ArrayList<Word> found = new ArrayList<Word>();
+        collect(0, new StringBuilder(), from, to, found);
+        return found;
+    }
+
+    /**
+     * Retrieve the number of words in the trie.
+     *
+     * @return the number of words
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Estimates how many bytes of memory the trie takes up.
+     *
+     * @return the approximate size of the trie in bytes
+     */
+    public long memoryBytes()
+    {
+        // each array has a 16 byte header
+        return 3 * 16 + label.length + 4L * firstChild.length + 4L * frequency.length;
+    }
+
+    /**
+     * Follows the characters of text down from the root.
+     *
+     * @param text  the characters to follow
+     * @return      the node reached, or -1 if the trie has no such path
+     */
+    private int find(String text)
+    {
+        int n = 0;
+        for (int i = 0; i < text.length() && n >= 0; i++)
+        {
+            n = child(n, text.charAt(i));
+        }
+        return n;
+    }
+
+    /**
+     * Finds the child of node n along the edge labelled c, using a
+     * binary search since the children are sorted by label.
+     *
+     * @param n  the parent node
+     * @param c  the label of the edge
+     * @return   the child, or -1 if there is none
+     */
+    private int child(int n, char c)
+    {
+        int low = firstChild[n];
+        int high = firstChild[n + 1] - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) / 2;
+            int compare = (label[mid] & 0xFF) - c;
+            if (compare == 0)
+            {
+                return mid;
+            }
+            if (compare > 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds every word below node n, in lexicographic order, to found,
+     * skipping words outside of the range from up to to.
+     *
+     * @param n      the node to start at
+     * @param path   the characters from the root to n
+     * @param from   the smallest word wanted, or null for no limit
+     * @param to     the word just past the largest word wanted, or null
+     *               for no limit
+     * @param found  where the words are added
+     */
+    private void collect(int n, StringBuilder path, String from, String to,
+                         ArrayList<Word> found)
+    {
+        if (frequency[n] > 0)
+        {
+            String word = path.toString();
+            if ((from == null || word.compareTo(from) >= 0) &&
+                (to == null || word.compareTo(to) < 0))
+            {
+                found.add(new Word(word, frequency[n]));
+            }
+        }
+        for (int c = firstChild[n]; c < firstChild[n + 1]; c++)
+        {
+            path.append((char)label[c]);
+            // every word below c starts with path
+            if (to != null && compare(path, to) >= 0)
+            {
+                path.setLength(path.length() - 1);
+                break;
+            }
+            if (from == null || compare(path, from) >= 0 || startsWith(from, path))
+            {
+                collect(c, path, from, to, found);
+            }
+            path.setLength(path.length() - 1);
+        }
+    }
+
+    /**
+     * Compares the characters of path with text lexicographically.
+     *
+     * @param path  the characters from the root to a node
+     * @param text  the String to compare with
+     * @return      < 0, 0 or > 0 as path comes before, is equal to, or
+     *              comes after text
+     */
+    private static int compare(StringBuilder path, String text)
+    {
+        int length = Math.min(path.length(), text.length());
+        for (int i = 0; i < length; i++)
+        {
+            if (path.charAt(i) != text.charAt(i))
+            {
+                return path.charAt(i) - text.charAt(i);
+            }
+        }
+        return path.length() - text.length();
+    }
+
+    /**
+     * Returns whether text starts with the characters of path.
+     *
+     * @param text  the String to check
+     * @param path  the characters from the root to a node
+     * @return true if path is a prefix of text; otherwise, false
+     */
+    private static boolean startsWith(String text, StringBuilder path)
+    {
+        if (path.length() > text.length())
+        {
+            return false;
+        }
+        for (int i = 0; i < path.length(); i++)
+        {
+            if (path.charAt(i) != text.charAt(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -29,6 +29,19 @@ public class Word implements Comparable
         word = text;
     }
 
+    /**
+     * Constructor for objects of class Word whose frequency has
+     * already been counted elsewhere.
+     * 
+     * @param text      the string of characters of the word
+     * @param frequency how often the word appears in a text file
+     */
+    public Word(String text, int frequency)
+    {
+        this.frequency = frequency;
+        word = text;
+    }
+
     /**
      * The "word" has already appeared in the file, so 1 is 
      * added to frequence since it as appeared again.
@@ -103,6 +116,26 @@ public class Word implements Comparable
         }
     }
 
+    /**
+     * Compare the rank of two words: a word with a higher frequency
+     * ranks ahead, and words with the same frequency rank 
+     * lexicographically.
+     * 
+     * @param other the Word to compare the rank with.
+     * 
+     * @return  0 if this current Word object has the same word as other;
+     *        < 0 if this current Word object ranks ahead of other;
+     *        > 0 if this current Word object ranks behind other
+     */
+    public int compareRankTo(Word other)
+    {
+        if (frequency != other.frequency)
+        {
+            return frequency > other.frequency ? -1 : 1;
+        }
+        return word.compareTo(other.word);
+    }
+
     /**
      * Return the text of the word and its frequency as a String.
      * 
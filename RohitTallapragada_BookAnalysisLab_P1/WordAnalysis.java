@@ -1,7 +1,14 @@
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.PriorityQueue;
 import java.util.Scanner;
 import java.io.IOException;
 import java.io.File;
+import java.io.FileReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 /**
  * Reads in a text file and analyzes the frequency of the
@@ -20,8 +27,39 @@ import java.io.File;
  */
 public class WordAnalysis
 {
+    // size of the buffers used to read a file
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // most query results kept by each analysis; 0 turns caching off
+    private static final int QUERY_CACHE_SIZE = Integer.getInteger("wordanalysis.queryCacheSize", 256);
+
     // instance variables 
-    private ArrayList <Word> words;
+    private ArrayList <Word> words;   // null until first needed if counts,
+                                      // snapshot or columns is used
+    private WordCountTable counts;    // not used in SEQUENTIAL mode
+    private WordSnapshot snapshot;    // only used when loaded from a snapshot
+    private ColumnarWordStore columns; // only used in COLUMNAR mode
+    private BookFollower follower;    // only used in INCREMENTAL mode
+
+    // the same words as the words list, kept in their own order so that
+    // sorting the words list does not disturb them; null when they have
+    // to be rebuilt because the words have changed
+    private ArrayList <Word> alphabetical;
+    private ArrayList <Word> byFrequency;
+    private VocabularyTrie trie;      // for prefix and range queries
+
+    // running totals of the frequencies: sums[i] is the sum of the 
+    // frequencies of the first i words.  wordSums follows the words list
+    // and is dropped whenever that list is rearranged; frequencySums 
+    // follows the by-frequency order.
+    private long[] wordSums;
+    private long[] frequencySums;
+
+    private Scanner console;          // the menu's input, once it is shown
+
+    // results of recent queries that do not depend on the order of the
+    // words list; dropped whenever the words change
+    private QueryCache cache = new QueryCache(QUERY_CACHE_SIZE);
 
     /**
      * Creates a list of words from a file and frequency of use
@@ -31,8 +69,123 @@ public class WordAnalysis
      */
     public WordAnalysis(String fileName) throws IOException
     {
-        words = new ArrayList<Word>( );
-        readFile(fileName);
+        this(fileName, IngestMode.SEQUENTIAL);
+    }
+
+    /**
+     * Creates a list of words from a file and frequency of use, reading
+     * the file the way mode says to.
+     * 
+     * @param  fileName    the name of the text of the book
+     * @param  mode        how the words of the file are counted
+     * @throws IOException file is not found
+     */
+    public WordAnalysis(String fileName, IngestMode mode) throws IOException
+    {
+        if (mode == IngestMode.SEQUENTIAL)
+        {
+            words = new ArrayList<Word>( );
+            readFile(fileName);
+        }
+        else if (mode == IngestMode.HASHED)
+        {
+            counts = new WordCountTable( );
+            readFileHashed(fileName);
+        }
+        else
+        {
+            // every other mode splits the file with a WordTokenizer
+            WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.READ_FILE);
+            WordCountTable table = readTokenized(fileName, mode);
+            if (mode == IngestMode.COLUMNAR)
+            {
+                columns = table.toColumns( );
+            }
+            else
+            {
+                counts = table;
+            }
+            endTokenizedRead(event, table.total(), table.size());
+        }
+        wordsChanged();
+    }
+
+    /**
+     * Creates a list of words from words that have already been counted.
+     * The table should not be changed afterwards.
+     * 
+     * @param  counts  the words and how often each appears
+     */
+    public WordAnalysis(WordCountTable counts)
+    {
+        this.counts = counts;
+        wordsChanged();
+    }
+
+    /**
+     * Creates a list of words from a snapshot of a file, if there is an 
+     * up-to-date snapshot.  Otherwise the file is read, the way MAPPED
+     * mode reads it, and a new snapshot is saved for next time.
+     * A snapshot is out of date if the file's size or last modified time
+     * has changed, or if the snapshot is damaged or of an older version.
+     * If the snapshot cannot be written, as in a read-only directory,
+     * the words just read are used all the same, and the failure is
+     * reported on System.err.  (A damaged snapshot has been mapped to
+     * check it, and on Windows cannot be replaced until its buffer is
+     * garbage collected, so it may be rebuilt only on a later run.)
+     * Looking up a word in a snapshot searches the mapped file rather
+     * than building the words list.
+     * 
+     * @param  fileName      the name of the text of the book
+     * @param  snapshotName  the name of the snapshot of the book
+     * @throws IOException   file is not found
+     */
+    public WordAnalysis(String fileName, String snapshotName) throws IOException
+    {
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.READ_FILE);
+        if (Files.exists(Paths.get(snapshotName)))
+        {
+            try
+            {
+                // the header is checked before the file is mapped, since
+                // a mapped snapshot cannot be replaced on some systems
+                if (WordSnapshot.isCurrent(snapshotName, fileName))
+                {
+                    snapshot = WordSnapshot.open(snapshotName);
+                }
+            }
+            catch (IOException e)
+            {
+                // a damaged or old snapshot is simply rebuilt
+            }
+        }
+
+        if (snapshot != null)
+        {
+            // nothing was tokenized, so only the phase is counted
+            WordMetrics.end(event, snapshot.total());
+        }
+        else
+        {
+            // note the file's size and time first, so a change made
+            // while it is being read makes the snapshot out of date
+            Path source = Paths.get(fileName);
+            long size = Files.size(source);
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            counts = new WordCountTable( );
+            new MappedBookReader( ).read(fileName, new WordTokenizer(counts));
+            endTokenizedRead(event, counts.total(), counts.size());
+            try
+            {
+                WordSnapshot.save(snapshotName, size, modified, alphabeticalView());
+            }
+            catch (IOException e)
+            {
+                // the snapshot only saves reading the book next time; the
+                // words have been counted either way
+                System.err.println("Could not save the snapshot " + snapshotName + ": " + e);
+            }
+        }
     }
 
     /**
@@ -45,25 +198,448 @@ public class WordAnalysis
      */
     private void readFile(String fileName) throws IOException
     {
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.READ_FILE);
+        boolean measured = event != null;
+        long time = measured ? System.nanoTime() : 0;
+        long scanTime = 0;
+        long cleanUpTime = 0;
+        long insertTime = 0;
+        int tokens = 0;
+        int accepted = 0;
         Scanner inFile = new Scanner(new File(fileName));
 
         while (inFile.hasNext())
         {
             String str = inFile.next().toLowerCase( ).trim();
+            tokens++;
+            if (measured)
+            {
+                long now = System.nanoTime();
+                scanTime += now - time;
+                time = now;
+            }
             String newWord = cleanUp(str);
+            if (measured)
+            {
+                long now = System.nanoTime();
+                cleanUpTime += now - time;
+                time = now;
+            }
             if (newWord != null && 0 < newWord.length())
             {
                 // either add newWord to the words list if not there,
                 // or add to its frequency
                 sequentialSearchToProcessWord(newWord);
+                accepted++;
+                if (measured)
+                {
+                    long now = System.nanoTime();
+                    insertTime += now - time;
+                    time = now;
+                }
+            }
+        }
+        inFile.close();
+
+        if (measured)
+        {
+            WordMetrics.summarize(WordMetrics.Phase.SCAN, tokens, scanTime);
+            WordMetrics.summarize(WordMetrics.Phase.CLEAN_UP, tokens, cleanUpTime);
+            WordMetrics.summarize(WordMetrics.Phase.INSERT, accepted, insertTime);
+            WordMetrics.add(WordMetrics.Counter.TOKENS_READ, tokens);
+            WordMetrics.add(WordMetrics.Counter.TOKENS_REJECTED, tokens - accepted);
+            WordMetrics.add(WordMetrics.Counter.NEW_WORDS, words.size());
+            WordMetrics.add(WordMetrics.Counter.REPEATED_WORDS, accepted - words.size());
+        }
+        WordMetrics.end(event, tokens);
+    }
+
+    /**
+     * Reads the file, counting the words in the counts table.  The words
+     * list is not built until it is needed.
+     * 
+     * @param fileName   the pathname of the file
+     * @throws IOException file is not found
+     */
+    private void readFileHashed(String fileName) throws IOException
+    {
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.READ_FILE);
+        boolean measured = event != null;
+        long time = measured ? System.nanoTime() : 0;
+        long scanTime = 0;
+        long cleanUpTime = 0;
+        long insertTime = 0;
+        int tokens = 0;
+        int accepted = 0;
+        Scanner inFile = new Scanner(new File(fileName));
+
+        while (inFile.hasNext())
+        {
+            String str = inFile.next().toLowerCase( ).trim();
+            tokens++;
+            if (measured)
+            {
+                long now = System.nanoTime();
+                scanTime += now - time;
+                time = now;
+            }
+            String newWord = cleanUp(str);
+            if (measured)
+            {
+                long now = System.nanoTime();
+                cleanUpTime += now - time;
+                time = now;
+            }
+            if (newWord != null && 0 < newWord.length())
+            {
+                counts.add(newWord);
+                accepted++;
+                if (measured)
+                {
+                    long now = System.nanoTime();
+                    insertTime += now - time;
+                    time = now;
+                }
             }
         }
         inFile.close();
+
+        if (measured)
+        {
+            WordMetrics.summarize(WordMetrics.Phase.SCAN, tokens, scanTime);
+            WordMetrics.summarize(WordMetrics.Phase.CLEAN_UP, tokens, cleanUpTime);
+            WordMetrics.summarize(WordMetrics.Phase.INSERT, accepted, insertTime);
+            WordMetrics.add(WordMetrics.Counter.TOKENS_READ, tokens);
+            WordMetrics.add(WordMetrics.Counter.TOKENS_REJECTED, tokens - accepted);
+            WordMetrics.add(WordMetrics.Counter.NEW_WORDS, counts.size());
+            WordMetrics.add(WordMetrics.Counter.REPEATED_WORDS, accepted - counts.size());
+        }
+        WordMetrics.end(event, tokens);
+    }
+
+    /**
+     * Counts the words of the file in a new table, reading it the way
+     * mode says to.  mode is one of the modes that split the file with a
+     * WordTokenizer.
+     * 
+     * @param fileName   the pathname of the file
+     * @param mode       how the file is read
+     * @return           the words and their counts
+     * @throws IOException file is not found
+     */
+    private WordCountTable readTokenized(String fileName, IngestMode mode) throws IOException
+    {
+        if (mode == IngestMode.PARALLEL)
+        {
+            return new ParallelBookReader( ).read(fileName);
+        }
+        if (mode == IngestMode.PIPELINED)
+        {
+            return new PipelinedBookReader( ).read(fileName);
+        }
+
+        WordCountTable table = new WordCountTable( );
+        if (mode == IngestMode.STREAMING)
+        {
+            readFileStreaming(fileName, table);
+        }
+        else if (mode == IngestMode.INCREMENTAL)
+        {
+            follower = new BookFollower(fileName, table);
+            follower.readNew( );
+        }
+        else
+        {
+            // MAPPED and COLUMNAR
+            new MappedBookReader( ).read(fileName, new WordTokenizer(table));
+        }
+        return table;
+    }
+
+    /**
+     * Finishes timing a read by a WordTokenizer, adding the words it
+     * found to the metrics.  A WordTokenizer drops the pieces of text
+     * with no letters in them without passing them on, so only the
+     * words are counted as tokens read, and none as rejected.
+     * 
+     * @param event     what WordMetrics.begin returned, or null
+     * @param tokens    the number of words counted, with repetitions
+     * @param newWords  the number of those words counted for the first time
+     */
+    private static void endTokenizedRead(WordPhaseEvent event, long tokens, long newWords)
+    {
+        if (event != null)
+        {
+            WordMetrics.add(WordMetrics.Counter.TOKENS_READ, tokens);
+            WordMetrics.add(WordMetrics.Counter.NEW_WORDS, newWords);
+            WordMetrics.add(WordMetrics.Counter.REPEATED_WORDS, tokens - newWords);
+        }
+        WordMetrics.end(event, tokens);
+    }
+
+    /**
+     * Reads the file through a reusable buffer, splitting it into words
+     * with a WordTokenizer and counting them in a table.  The words list
+     * is not built until it is needed.
+     * 
+     * @param fileName   the pathname of the file
+     * @param table      where the words are counted
+     * @throws IOException file is not found
+     */
+    private void readFileStreaming(String fileName, WordCountTable table) throws IOException
+    {
+        FileReader inFile = new FileReader(fileName);
+        WordTokenizer tokenizer = new WordTokenizer(table);
+        char[] buffer = new char[BUFFER_SIZE];
+
+        int read = inFile.read(buffer);
+        while (read >= 0)
+        {
+            tokenizer.feed(buffer, 0, read);
+            read = inFile.read(buffer);
+        }
+        tokenizer.finish();
+        inFile.close();
+    }
+
+    /**
+     * Counts the text added to the end of the file since it was last
+     * read, adding to the frequencies of the words already counted.  If
+     * anything was added, or the file was replaced by a shorter one and
+     * counted again, the words list is rebuilt in lexicographic order the
+     * next time it is needed.  Only available in INCREMENTAL mode.
+     * 
+     * @return the number of bytes added to the file; 0 if it has not grown
+     * @throws IOException the file cannot be read
+     */
+    public long refresh() throws IOException
+    {
+        if (follower == null)
+        {
+            throw new IllegalStateException("Only INCREMENTAL mode can refresh.");
+        }
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.READ_FILE);
+        long tokens = counts.total();
+        int newWords = counts.size();
+        long added = follower.readNew();
+        if (follower.wasReset())
+        {
+            // the file is counted again from the start
+            tokens = 0;
+            newWords = 0;
+        }
+        endTokenizedRead(event, counts.total() - tokens, counts.size() - newWords);
+        if (added > 0 || follower.wasReset())
+        {
+            words = null;
+            wordsChanged();
+        }
+        return added;
+    }
+
+    /**
+     * Waits until the file is changed, or until the time runs out, and
+     * then counts whatever text was added.  Text added since the last
+     * refresh counts as a change, even if it was added before this call.
+     * The file's directory is watched from the first call until
+     * stopWatching.  Only available in INCREMENTAL mode.
+     * 
+     * @param timeoutMillis  the longest time to wait, in milliseconds
+     * @return               the number of bytes added to the file; 0 if it 
+     *                       did not grow in time
+     * @throws IOException   the file cannot be watched or read
+     * @throws InterruptedException  the thread is interrupted while waiting
+     */
+    public long awaitChangeAndRefresh(long timeoutMillis) 
+        throws IOException, InterruptedException
+    {
+        if (follower == null)
+        {
+            throw new IllegalStateException("Only INCREMENTAL mode can refresh.");
+        }
+        if (follower.awaitChange(timeoutMillis))
+        {
+            return refresh();
+        }
+        return 0;
+    }
+
+    /**
+     * Stops watching the file's directory for changes, which
+     * awaitChangeAndRefresh starts doing the first time it is called.
+     * awaitChangeAndRefresh may still be called afterwards.  Does nothing
+     * in any other mode than INCREMENTAL.
+     * 
+     * @throws IOException the watch cannot be closed
+     */
+    public void stopWatching() throws IOException
+    {
+        if (follower != null)
+        {
+            follower.close();
+        }
+    }
+
+    /**
+     * Retrieve the words list, building it in lexicographic order from
+     * the counts table the first time it is needed.
+     * 
+     * @return the words list
+     */
+    private ArrayList<Word> wordList()
+    {
+        if (words == null)
+        {
+            words = new ArrayList<Word>(alphabeticalView());
+        }
+        return words;
+    }
+
+    /**
+     * Retrieve the words in lexicographic order, rebuilding them only if
+     * the words have changed since they were last built.  Sorting the 
+     * words list does not affect this order.  In COLUMNAR mode the words
+     * are made from the columns each time and not kept, so that the 
+     * columns stay the only copy of the words.
+     * 
+     * @return the words in lexicographic order
+     */
+    private ArrayList<Word> alphabeticalView()
+    {
+        if (columns != null)
+        {
+            return new ArrayList<Word>(columns.asList());
+        }
+        if (alphabetical == null)
+        {
+            if (counts != null)
+            {
+                alphabetical = counts.toSortedList();
+            }
+            else if (snapshot != null)
+            {
+                alphabetical = snapshot.toList();
+            }
+            else
+            {
+                alphabetical = new ArrayList<Word>(words);
+                alphabetical.sort((a, b) -> a.getWord().compareTo(b.getWord()));
+            }
+        }
+        return alphabetical;
+    }
+
+    /**
+     * Retrieve the words by frequency in descending order, with ties in
+     * lexicographic order, rebuilding them only if the words have changed
+     * since they were last built.  Sorting the words list does not affect
+     * this order.  Like alphabeticalView, this is not kept in COLUMNAR
+     * mode.
+     * 
+     * @return the words by frequency in descending order
+     */
+    private ArrayList<Word> frequencyView()
+    {
+        if (byFrequency == null)
+        {
+            ArrayList<Word> sorted = new ArrayList<Word>(alphabeticalView());
+            FrequencySorter.sort(sorted);
+            if (columns != null)
+            {
+                return sorted;
+            }
+            byFrequency = sorted;
+        }
+        return byFrequency;
+    }
+
+    /**
+     * Retrieve the trie of the words, rebuilding it only if the words
+     * have changed since it was last built.
+     * 
+     * @return the trie of the words
+     */
+    private VocabularyTrie vocabularyTrie()
+    {
+        if (trie == null)
+        {
+            trie = new VocabularyTrie(alphabeticalView());
+        }
+        return trie;
+    }
+
+    /**
+     * Retrieve the running totals of the frequencies of the words list
+     * in its current order, building them if the list has been 
+     * rearranged since they were last built.
+     * 
+     * @return sums, where sums[i] is the sum of the first i frequencies
+     */
+    private long[] wordSums()
+    {
+        if (wordSums == null)
+        {
+            wordSums = runningTotals(wordList());
+        }
+        return wordSums;
+    }
+
+    /**
+     * Retrieve the running totals of the frequencies of the words in 
+     * descending order of frequency, building them if the words have 
+     * changed since they were last built.
+     * 
+     * @return sums, where sums[i] is the sum of the i highest frequencies
+     */
+    private long[] frequencySums()
+    {
+        if (frequencySums == null)
+        {
+            frequencySums = runningTotals(frequencyView());
+        }
+        return frequencySums;
+    }
+
+    /**
+     * Adds up the frequencies of a list of words, keeping every
+     * partial sum.
+     * 
+     * @param list  the words to be added up
+     * @return      sums, where sums[i] is the sum of the first i frequencies
+     */
+    private static long[] runningTotals(ArrayList<Word> list)
+    {
+        long[] sums = new long[list.size() + 1];
+        for (int index = 0; index < list.size(); index++)
+        {
+            sums[index + 1] = sums[index] + list.get(index).getFrequency();
+        }
+        return sums;
+    }
+
+    /**
+     * Marks both orders of the words as out of date, so that they are
+     * rebuilt the next time they are needed, and drops the cached query
+     * results.  Must be called whenever
+     * words are added or their frequencies change.
+     */
+    private void wordsChanged()
+    {
+        if (cache.size() > 0)
+        {
+            cache.invalidate();
+        }
+        alphabetical = null;
+        byFrequency = null;
+        trie = null;
+        frequencySums = null;
+        wordSums = null;
     }
 
     /**
      * Cleans up a string of characters so it has only apostrophes,
      * hypens, or letters a through z.
+     * Package-private so that HotPathBenchmark can time it.
      * 
      * @param s  the original input string
      * 
@@ -71,7 +647,7 @@ public class WordAnalysis
      *         or a dash has a letter before and after it, that
      *         character is also included.
      */
-    private String cleanUp(String s)
+    String cleanUp(String s)
     {
         String letters = "";
         for (int i = 0 ; i < s.length() ; i++)
@@ -139,6 +715,7 @@ public class WordAnalysis
      * or add one to its frequency. 
      * The words list maintains its lexicographical order
      * and no words appears in the list more than once.
+     * Package-private so that HotPathBenchmark can time it.
      * 
      * @precondition  words list is in lexicographic order
      * @postcondition words list is in lexicographic order
@@ -148,7 +725,7 @@ public class WordAnalysis
      * @return     the position txt occupies in words list or 
      *             Integer.MIN_VALUE if no match is found
      */
-    private int sequentialSearchToProcessWord(String txt)
+    int sequentialSearchToProcessWord(String txt)
     {
         if (words.size() == 0)
             return addWord(txt,-1);
@@ -228,10 +805,13 @@ public class WordAnalysis
      */
     public void print()
     {
-        for (int index = 0; index < words.size(); index++)
+        ArrayList<Word> list = wordList();
+        StringBuilder out = new StringBuilder(list.size() * 8);
+        for (int index = 0; index < list.size(); index++)
         {
-            System.out.println(words.get(index).getWord());
+            out.append(list.get(index).getWord()).append('\n');
         }
+        System.out.print(out);
     }
 
     /**
@@ -246,7 +826,7 @@ public class WordAnalysis
     {
         for(int index = 0; index < x; index++)
         {
-            System.out.printf(words.get(index).toString());
+            System.out.printf(wordList().get(index).toString());
         }
     }
 
@@ -257,8 +837,8 @@ public class WordAnalysis
      */
     public void printWord(int index)
     {
-        if (0 <= index && index < words.size())
-            System.out.println(words.get(index));
+        if (0 <= index && index < wordList().size())
+            System.out.println(wordList().get(index));
         else
             System.out.println("\n\nAsked for word does not appear in document. " +
                 "Index = " + index);
@@ -273,14 +853,16 @@ public class WordAnalysis
      */
     public long sumWords()
     {
-        long totalWords = 0;
-
-        for(int index = 0; index < words.size(); index++)
+        if (words == null)
         {
-            totalWords = totalWords + (words.get(index)).getFrequency();
+            if (counts != null)
+            {
+                return counts.total();
+            }
+            return snapshot != null ? snapshot.total() : columns.total();
         }
-
-        return totalWords;
+        long[] sums = wordSums();
+        return sums[sums.length - 1];
     }
 
     /**
@@ -289,22 +871,20 @@ public class WordAnalysis
      * Note: the organization of the list (ordered alphabetically or 
      *       by frequency) affects this outcome.
      * 
+     * Running totals of the frequencies are kept until the list is 
+     * rearranged, so after the first call this takes constant time.
+     * 
      * @param number the number of words which are to be used to
      *               generate the sum.  The "number" indicates the 
-     *               first "number" positions in the words list.
+     *               first "number" positions in the words list; a 
+     *               number past the end of the list means all of it.
      *               
      * @return how many times the top "number" words occurs
      */
     public long sumTopWords( int number )
     {
-        long topWords = 0;
-
-        for(int index = 0; index < number; index++)
-        {
-            topWords = topWords + (words.get(index)).getFrequency();
-        }
-
-        return topWords;
+        long[] sums = wordSums();
+        return sums[Math.max(0, Math.min(number, sums.length - 1))];
     }
 
     /**
@@ -336,22 +916,184 @@ public class WordAnalysis
     public double getWordQuotient(int num)
     {
         double quotient = 0.0;
+        long total = sumWords();
 
-        quotient = sumTopWords(num)/sumWords();
+        if (total > 0)
+        {
+            quotient = (double)sumTopWords(num) / total;
+        }
 
         return quotient;
     }
 
     /**
-     * Calculates a rounded percentage form of the result
-     * of getWordQuotient.
+     * Calculates a rounded percentage of the words in the text made up
+     * by the most frequent words, whatever order the list is in.
      * 
-     * @param  num   the number of words being considered
+     * @param  num   the number of most frequent words being considered
      * @return the rounded percentage
      */
     private int calculatePercentage(int num)
     {
-        return (int)(getWordQuotient(num) * 100.0);
+        long total = sumWords();
+        return total == 0 ? 0 : (int)(sumMostFrequentWords(num) * 100.0 / total);
+    }
+
+    /**
+     * Finds the k most frequent words, without reordering the words list.
+     * Words with the same frequency are ranked lexicographically.
+     * If the words have already been put in order by frequency, the first
+     * k are copied; otherwise a heap of at most k words is kept while the
+     * list is scanned, so this takes O(n log k) time rather than a full
+     * sort.
+     * 
+     * @param k  the number of words wanted
+     * @return   the k most frequent words (or all of the words, if there
+     *           are fewer than k), most frequent first
+     */
+    public ArrayList<Word> topWords(int k)
+    {
+        // copied, so changing the list returned does not change the cache
+        return new ArrayList<Word>(cache.get("topWords", k, () -> topWordsUncached(k)));
+    }
+
+    /**
+     * Finds the k most frequent words without using the query cache.
+     * 
+     * @param k  the number of words wanted
+     * @return   the k most frequent words, most frequent first
+     */
+    private ArrayList<Word> topWordsUncached(int k)
+    {
+        if (columns != null)
+        {
+            ArrayList<Word> top = new ArrayList<Word>();
+            for (int index : columns.mostFrequent(k))
+            {
+                top.add(columns.toWord(index));
+            }
+            return top;
+        }
+        if (byFrequency != null)
+        {
+            // the words are already in order, so just copy the first k
+            int n = Math.max(0, Math.min(k, byFrequency.size()));
+            return new ArrayList<Word>(byFrequency.subList(0, n));
+        }
+
+        ArrayList<Word> list = wordList();
+        // the head of the heap is the lowest ranked of the words kept
+        PriorityQueue<Word> heap = new PriorityQueue<Word>(Math.max(1, Math.min(k, list.size())),
+            (a, b) -> b.compareRankTo(a));
+        for (int index = 0; index < list.size() && k > 0; index++)
+        {
+            Word w = list.get(index);
+            if (heap.size() < k)
+            {
+                heap.add(w);
+            }
+            else if (w.compareRankTo(heap.peek()) < 0)
+            {
+                heap.poll();
+                heap.add(w);
+            }
+        }
+
+        ArrayList<Word> top = new ArrayList<Word>(heap.size());
+        while (!heap.isEmpty())
+        {
+            top.add(heap.poll());
+        }
+        Collections.reverse(top);
+        return top;
+    }
+
+    /**
+     * Prints out the k most frequent words, without reordering the 
+     * words list.
+     * 
+     * @param k  the number of words to be printed
+     */
+    public void printMostFrequentWords(int k)
+    {
+        ArrayList<Word> top = topWords(k);
+        StringBuilder out = new StringBuilder(top.size() * 24);
+        for (int index = 0; index < top.size(); index++)
+        {
+            out.append(top.get(index)).append('\n');
+        }
+        System.out.print(out);
+    }
+
+    /**
+     * Determines how many times the k most frequent words have appeared 
+     * in the original document, regardless of how the words list is 
+     * ordered.  Running totals of the by-frequency order are kept until
+     * the words change, so after the first call this takes constant time.
+     * 
+     * @param k  the number of most frequent words to be used
+     * @return   how many times the k most frequent words occur
+     */
+    public long sumMostFrequentWords(int k)
+    {
+        return cache.get("sumMostFrequentWords", k, () -> {
+            if (columns != null)
+            {
+                return columns.sumMostFrequent(k);
+            }
+            long[] sums = frequencySums();
+            return sums[Math.max(0, Math.min(k, sums.length - 1))];
+        });
+    }
+
+    /**
+     * Determines the fewest of the most frequent words that together
+     * make up at least the given percentage of the words in the text.
+     * For example, if wordsToCover(50.0) returns 100, the 100 most 
+     * frequent words account for half of the text.  Uses a binary
+     * search over the running totals of the frequencies.
+     * 
+     * @param percent  the percentage of the text to be covered, from
+     *                 0 to 100
+     * @return         the number of most frequent words needed
+     */
+    public int wordsToCover(double percent)
+    {
+        return cache.get("wordsToCover", percent, () -> wordsToCoverUncached(percent));
+    }
+
+    /**
+     * Determines the fewest of the most frequent words that together
+     * make up at least the given percentage of the words in the text,
+     * without using the query cache.
+     * 
+     * @param percent  the percentage of the text to be covered, from
+     *                 0 to 100
+     * @return         the number of most frequent words needed
+     */
+    private int wordsToCoverUncached(double percent)
+    {
+        if (columns != null)
+        {
+            return columns.wordsToCover(percent);
+        }
+        long[] sums = frequencySums();
+        double target = sums[sums.length - 1] * percent / 100.0;
+        int low = 0;
+        int high = sums.length - 1;
+        while (low < high)
+        {
+            int mid = (low + high) / 2;
+            if (sums[mid] >= target)
+            {
+                high = mid;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return low;
     }
 
     /**
@@ -364,6 +1106,14 @@ public class WordAnalysis
      */
     public int getNumberOfUniqueWords()
     {
+        if (words == null)
+        {
+            if (counts != null)
+            {
+                return counts.size();
+            }
+            return snapshot != null ? snapshot.size() : columns.size();
+        }
         return words.size();
     }
 
@@ -372,7 +1122,25 @@ public class WordAnalysis
      */
     public void sortFrequency( )
     {
-        sortFrequencyHelper(0,words.size()-1);
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.SORT_FREQUENCY);
+        sortFrequencyHelper(0,wordList().size()-1);
+        wordSums = null;
+        WordMetrics.end(event, words.size());
+    }
+
+    /**
+     * Sorts the words by frequency in descending order in linear time,
+     * using a FrequencySorter.  Unlike sortFrequency, words with the
+     * same frequency always end up in lexicographic order.
+     */
+    public void sortFrequencyByCounting( )
+    {
+        // the order is kept until the words change, so later calls
+        // only copy it
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.SORT_FREQUENCY);
+        words = new ArrayList<Word>(frequencyView());
+        wordSums = null;
+        WordMetrics.end(event, words.size());
     }
 
     /**
@@ -385,7 +1153,7 @@ public class WordAnalysis
      */
     private void sortFrequencyHelper(int low, int high)
     {
-        if (low == high)
+        if (low >= high)
         {
             return; //base case
         }
@@ -449,7 +1217,10 @@ public class WordAnalysis
      */
     public void sortWords( )
     {
-        sortWordsHelper(0,words.size()-1);
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.SORT_WORDS);
+        sortWordsHelper(0,wordList().size()-1);
+        wordSums = null;
+        WordMetrics.end(event, words.size());
     }
 
     /**
@@ -462,7 +1233,7 @@ public class WordAnalysis
      */
     private void sortWordsHelper(int low, int high)
     {
-        if (low == high)
+        if (low >= high)
         {
             return; //base case
         }
@@ -520,28 +1291,170 @@ public class WordAnalysis
     }
 
     /**
-     * Finds the parameter "txt" in the words list and returns the index
-     * at which it is found. If txt is not in the words list, -1 is returned.
-     * 
-     * @postcondition   words has been sorted alphabetically
+     * Finds the parameter "txt" in the lexicographic order of the words
+     * and returns the index at which it is found. If txt is not in the
+     * words list, -1 is returned.  The order of the words list is not
+     * changed; once the words list has been sorted alphabetically the
+     * index is also its position there.
      * 
      * @param txt  the word to be found in words list 
-     * @return the index in which txt was found in words list.  
+     * @return the index in which txt was found in lexicographic order.  
      *         If txt is not in the words list, -1 is returned.
      */
     public int findWord(String txt)
     {
-        sortWords( );
-        return searchWord (txt, 0, words.size( ) - 1);
+        WordPhaseEvent event = WordMetrics.begin(WordMetrics.Phase.SEARCH);
+        int index;
+        if (columns != null)
+        {
+            // the columns are already in lexicographic order
+            index = columns.find(txt);
+        }
+        else if (snapshot != null)
+        {
+            // and so is the snapshot
+            index = snapshot.find(txt);
+        }
+        else
+        {
+            index = searchWord (txt, 0, alphabeticalView().size( ) - 1);
+        }
+        WordMetrics.end(event, 1);
+        return index;
+    }
+
+    /**
+     * Looks up the parameter "txt" without changing the order of the
+     * words list.
+     * 
+     * @param txt  the word to be found
+     * @return the Word for txt, or null if txt is not in the words list
+     */
+    public Word lookUp(String txt)
+    {
+        return cache.get("lookUp", txt, () -> lookUpUncached(txt));
+    }
+
+    /**
+     * Looks up the parameter "txt" without using the query cache.
+     * 
+     * @param txt  the word to be found
+     * @return the Word for txt, or null if txt is not in the words list
+     */
+    private Word lookUpUncached(String txt)
+    {
+        int index = findWord(txt);
+        if (index == -1)
+        {
+            return null;
+        }
+        if (columns != null)
+        {
+            return columns.toWord(index);
+        }
+        if (snapshot != null)
+        {
+            return snapshot.toWord(index);
+        }
+        return alphabeticalView().get(index);
+    }
+
+    /**
+     * Finds how often the parameter "txt" appears, using the columns in
+     * COLUMNAR mode, the mapped file when loaded from a snapshot, and the
+     * trie of the words otherwise.
+     * 
+     * @param txt  the word to be found
+     * @return how often txt appears; 0 if it is not in the words list
+     */
+    public int frequencyOf(String txt)
+    {
+        return cache.get("frequencyOf", txt, () -> {
+            if (columns != null)
+            {
+                return columns.frequencyOf(txt);
+            }
+            if (snapshot != null)
+            {
+                return snapshot.frequencyOf(txt);
+            }
+            return vocabularyTrie().getFrequency(txt);
+        });
+    }
+
+    /**
+     * Finds every word that starts with the parameter "prefix", for 
+     * example all the words starting with "whal".
+     * 
+     * @param prefix  the characters the words have to start with
+     * @return the words, with their frequencies, in lexicographic order
+     */
+    public ArrayList<Word> findWordsStartingWith(String prefix)
+    {
+        // copied, so changing the list returned does not change the cache
+        return new ArrayList<Word>(cache.get("findWordsStartingWith", prefix, () -> {
+            if (columns != null)
+            {
+                return columns.toWords(columns.firstFrom(prefix), columns.endOfPrefix(prefix));
+            }
+            return vocabularyTrie().wordsWithPrefix(prefix);
+        }));
+    }
+
+    /**
+     * Finds every word that comes lexicographically from the parameter
+     * "from" up to, but not including, the parameter "to".
+     * 
+     * @param from  the smallest word wanted
+     * @param to    the word just past the largest word wanted
+     * @return the words, with their frequencies, in lexicographic order
+     */
+    public ArrayList<Word> findWordsBetween(String from, String to)
+    {
+        return new ArrayList<Word>(cache.get("findWordsBetween", Arrays.asList(from, to), () -> {
+            if (columns != null)
+            {
+                return columns.toWords(from == null ? 0 : columns.firstFrom(from),
+                    to == null ? columns.size() : columns.firstFrom(to));
+            }
+            return vocabularyTrie().wordsInRange(from, to);
+        }));
+    }
+
+    /**
+     * Retrieve the cache of query results, for its hit and miss counts.
+     * The cache keeps the results of lookUp, frequencyOf, topWords,
+     * sumMostFrequentWords, wordsToCover, findWordsStartingWith and
+     * findWordsBetween, none of which depend on the order of the words
+     * list; its size is set by the system property
+     * wordanalysis.queryCacheSize (256 if not set).
+     *
+     * @return the query cache
+     */
+    public QueryCache getQueryCache()
+    {
+        return cache;
     }
 
     /**
-     * Using a binary search, finds the  parameter txt in the words list and
-     * returns the index at which it is found. If txt is not in the words list, 
-     * a -1 is returned.
+     * Takes an unchangeable copy of the words as they are now, which can
+     * be queried from any number of threads while this WordAnalysis goes
+     * on being sorted or read into.
+     *
+     * @return the index of the words, with the words list in its current order
+     */
+    public WordIndex toIndex()
+    {
+        return new WordIndex(wordList(), alphabeticalView(), frequencyView());
+    }
+
+    /**
+     * Using a binary search, finds the  parameter txt in the alphabetical
+     * order and returns the index at which it is found. If txt is not in the
+     * words list, a -1 is returned.
      * This is a helper method for findWord.
      * 
-     * @precondition words list must be sorted alphabetically
+     * @precondition the alphabetical order has been built
      * 
      * @param txt  the word to be found in words list 
      * @param low    the smallest index to be used in this portion of the search
@@ -558,7 +1471,7 @@ public class WordAnalysis
             return -1;
         }
         int mid = (low + high)/2;
-        int compare = words.get(mid).getWord().compareTo(txt);
+        int compare = alphabetical.get(mid).getWord().compareTo(txt);
 
         if (compare == 0)
         {
@@ -603,7 +1516,12 @@ public class WordAnalysis
      */
     public boolean interactWithUser( )
     {
-        Scanner in = new Scanner(System.in);
+        if (console == null)
+        {
+            // kept between calls, so typed-ahead input is not lost
+            console = new Scanner(System.in);
+        }
+        Scanner in = console;
         boolean done = false;
         printMenu();
         int choice = in.nextInt();
@@ -619,7 +1537,7 @@ public class WordAnalysis
         }
         else if (choice == 3)
         {
-            sortFrequency();
+            sortFrequencyByCounting();
         }
         else if(choice == 4)
         {
@@ -627,7 +1545,7 @@ public class WordAnalysis
         }
         else if(choice == 5)
         {
-            sortFrequency();
+            sortFrequencyByCounting();
             print();
         }
         else if(choice == 6)
@@ -643,20 +1561,20 @@ public class WordAnalysis
         {
             System.out.print("\n\tHow many numbers do you want?\n\t");
             int top = in.nextInt();
-            printTopWords(top);
+            printMostFrequentWords(top);
         }
         else if(choice == 9)
         {
             System.out.print("\n\tWhich word do you want to search for?\n\t");
             String search = in.nextLine();
-            int index = findWord(search);
-            if (index == -1)
+            Word found = lookUp(search);
+            if (found == null)
             {
                 System.out.println("Word does not exist.");
             }
             else 
             {
-                System.out.println(search + ": " + words.get(index).getFrequency());
+                System.out.println(search + ": " + found.getFrequency());
             }
         }
         else if(choice == 10)
@@ -666,7 +1584,7 @@ public class WordAnalysis
             System.out.println("The top " + top + " numbers make up about " 
                 + calculatePercentage(top) 
                 + "% of the total number of words in the text.\nThe total number of the " 
-                + top + " most frequent words is " + sumTopWords(top));
+                + top + " most frequent words is " + sumMostFrequentWords(top));
         }
         else if (choice == 11)
         {
@@ -686,11 +1604,16 @@ public class WordAnalysis
      */
     public static void main (String [] args) throws IOException
     {
-        WordAnalysis author = new WordAnalysis("MobyDick.txt");
+        WordAnalysis author = new WordAnalysis("MobyDick.txt", "MobyDick.snapshot");
         boolean areWeDoneYet = false;
         while ( ! areWeDoneYet)
         {
             areWeDoneYet = author.interactWithUser( );
         }
+        if (WordMetrics.isEnabled())
+        {
+            System.out.print(WordMetrics.snapshot().report());
+            System.out.print(author.getQueryCache().report());
+        }
     }
 }
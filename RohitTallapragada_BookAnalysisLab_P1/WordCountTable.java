@@ -0,0 +1,449 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash table from a word to how often it appears.
+ * Counts are kept in a primitive int array, so counting a word that
+ * is already in the table does not create any objects.
+ *
+ * The table keeps no order; toSortedList builds the alphabetical
+ * list of Word objects when it is needed.
+ *
+ * As a TokenSink, the table counts words straight out of a
+ * WordTokenizer's buffer; only a word seen for the first time
+ * becomes a String.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordCountTable implements TokenSink
+{
+    // instance variables
+    private String[] keys;   // the words, null where a slot is empty
+    private int[] hashes;    // cached hash code of the word in each slot
+    private int[] counts;    // how often the word in each slot appeared
+    private int size;        // number of different words
+    private long total;      // number of words counted, with repetitions
+
+    /**
+     * Constructor for an empty table.
+     */
+    public WordCountTable()
+    {
+        this(1024);
+    }
+
+    /**
+     * Constructor for an empty table sized for about the given
+     * number of different words.
+     *
+     * @param expectedWords the number of different words expected
+     */
+    public WordCountTable(int expectedWords)
+    {
+        int capacity = 16;
+        while (capacity < expectedWords * 2)
+        {
+            capacity *= 2;
+        }
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        counts = new int[capacity];
+    }
+
+    /**
+     * Adds one to the count of the word, adding the word to the table
+     * if it is not there.
+     *
+     * @param word the word to be counted
+     * @return     the count of the word after it has been added
+     */
+    public int add(String word)
+    {
+        return add(word, 1);
+    }
+
+    /**
+     * Adds n to the count of the word, adding the word to the table
+     * if it is not there.
+     *
+     * @param word the word to be counted
+     * @param n    how many times the word appeared
+     * @return     the count of the word after it has been added
+     */
+    public int add(String word, int n)
+    {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && keys[slot].equals(word))
+            {
+                counts[slot] += n;
+                total += n;
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return insert(slot, word, hash, n);
+    }
+
+    /**
+     * Adds every word counted in another table to this table.
+     *
+     * @param other  the table whose counts are added
+     */
+    public void addAll(WordCountTable other)
+    {
+        for (int slot = 0; slot < other.keys.length; slot++)
+        {
+            if (other.keys[slot] != null)
+            {
+                add(other.keys[slot], other.counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Adds one to the count of the word held in part of a char array,
+     * adding the word to the table if it is not there.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     * @return        the count of the word after it has been added
+     */
+    public int add(char[] text, int offset, int length)
+    {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = 31 * hash + text[i];
+        }
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && matches(keys[slot], text, offset, length))
+            {
+                counts[slot]++;
+                total++;
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return insert(slot, new String(text, offset, length), hash, 1);
+    }
+
+    /**
+     * Counts a word found by a WordTokenizer.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     */
+    public void token(char[] text, int offset, int length)
+    {
+        add(text, offset, length);
+    }
+
+    /**
+     * Subtracts one from the count of the word, taking the word out of
+     * the table when its count reaches 0.
+     *
+     * @param word the word to be uncounted
+     * @return     the count of the word after one has been subtracted;
+     *             -1 if the word was not in the table
+     */
+    public int remove(String word)
+    {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && keys[slot].equals(word))
+            {
+                counts[slot]--;
+                total--;
+                if (counts[slot] > 0)
+                {
+                    return counts[slot];
+                }
+                delete(slot);
+                return 0;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Takes every word out of the table.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, null);
+        size = 0;
+        total = 0;
+    }
+
+    /**
+     * Retrieve how often a word was counted.
+     *
+     * @param word the word of interest
+     * @return     how often the word was counted; 0 if it is not in the table
+     */
+    public int get(String word)
+    {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        int slot = spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && keys[slot].equals(word))
+            {
+                return counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Retrieve the number of different words in the table.
+     *
+     * @return the number of different words
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Retrieve the number of words counted, including repetitions.
+     *
+     * @return the sum of the counts of all the words
+     */
+    public long total()
+    {
+        return total;
+    }
+
+    /**
+     * Retrieve the number of slots, for going through every word with
+     * wordAt and countAt.
+     *
+     * @return the number of slots
+     */
+    public int capacity()
+    {
+        return keys.length;
+    }
+
+    /**
+     * Retrieve the word in a slot.
+     *
+     * @param slot  the slot, from 0 up to capacity()
+     * @return      the word, or null if the slot is empty
+     */
+    public String wordAt(int slot)
+    {
+        return keys[slot];
+    }
+
+    /**
+     * Retrieve the count in a slot.
+     *
+     * @param slot  the slot, from 0 up to capacity()
+     * @return      the count, or 0 if the slot is empty
+     */
+    public int countAt(int slot)
+    {
+        return keys[slot] == null ? 0 : counts[slot];
+    }
+
+    /**
+     * Builds a list of Word objects for every word in the table,
+     * in lexicographic order.
+     *
+     * @return the words list in lexicographic order
+     */
+    public ArrayList<Word> toSortedList()
+    {
+        String[] sorted = new String[size];
+        int next = 0;
+        for (int slot = 0; slot < keys.length; slot++)
+        {
+            if (keys[slot] != null)
+            {
+                sorted[next] = keys[slot];
+                next++;
+            }
+        }
+        Arrays.sort(sorted);
+
+        ArrayList<Word> list = new ArrayList<Word>(size);
+        for (int index = 0; index < sorted.length; index++)
+        {
+            list.add(new Word(sorted[index], get(sorted[index])));
+        }
+        return list;
+    }
+
+    /**
+     * Builds a ColumnarWordStore of every word in the table, without
+     * making a Word object for each.
+     *
+     * @return the words and their frequencies, in lexicographic order
+     */
+    public ColumnarWordStore toColumns()
+    {
+        String[] sorted = new String[size];
+        int next = 0;
+        for (int slot = 0; slot < keys.length; slot++)
+        {
+            if (keys[slot] != null)
+            {
+                sorted[next] = keys[slot];
+                next++;
+            }
+        }
+        Arrays.sort(sorted);
+
+        int[] frequencies = new int[size];
+        for (int index = 0; index < sorted.length; index++)
+        {
+            frequencies[index] = get(sorted[index]);
+        }
+        return new ColumnarWordStore(sorted, frequencies);
+    }
+
+    /**
+     * Places a word that is not yet in the table into an empty slot,
+     * growing the table first if it is getting full.
+     *
+     * @param slot  the empty slot found for the word
+     * @param word  the word to be added
+     * @param hash  the hash code of the word
+     * @param n     the starting count of the word
+     * @return      the count of the word
+     */
+    private int insert(int slot, String word, int hash, int n)
+    {
+        if ((size + 1) * 4 > keys.length * 3)
+        {
+            grow();
+            int mask = keys.length - 1;
+            slot = spread(hash) & mask;
+            while (keys[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+        }
+        keys[slot] = word;
+        hashes[slot] = hash;
+        counts[slot] = n;
+        size++;
+        total += n;
+        return n;
+    }
+
+    /**
+     * Empties a slot, then moves back any later words in the same run of
+     * full slots that could no longer be found past the gap.
+     *
+     * @param slot  the slot to be emptied
+     */
+    private void delete(int slot)
+    {
+        int mask = keys.length - 1;
+        keys[slot] = null;
+        size--;
+        int gap = slot;
+        int next = (slot + 1) & mask;
+        while (keys[next] != null)
+        {
+            int home = spread(hashes[next]) & mask;
+            // the word in next may fill the gap only if its home slot is
+            // not between the gap and next (going around the end)
+            boolean between = (gap <= next) ? (gap < home && home <= next)
+                                            : (gap < home || home <= next);
+            if (!between)
+            {
+                keys[gap] = keys[next];
+                hashes[gap] = hashes[next];
+                counts[gap] = counts[next];
+                keys[next] = null;
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    /**
+     * Doubles the size of the table, placing every word again.
+     */
+    private void grow()
+    {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldCounts = counts;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[keys.length];
+        counts = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != null)
+            {
+                int slot = spread(oldHashes[i]) & mask;
+                while (keys[slot] != null)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Returns whether a word has the same characters as part of a char array.
+     *
+     * @param word    the word in the table
+     * @param text    the characters to compare with
+     * @param offset  the position of the first character to compare
+     * @param length  the number of characters to compare
+     * @return true if they are the same; otherwise, false
+     */
+    static boolean matches(String word, char[] text, int offset, int length)
+    {
+        if (word.length() != length)
+        {
+            return false;
+        }
+        for (int i = 0; i < length; i++)
+        {
+            if (word.charAt(i) != text[offset + i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits, which are
+     * the ones used to pick a slot.
+     *
+     * @param hash the hash code of a word
+     * @return     the mixed hash code
+     */
+    static int spread(int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+}
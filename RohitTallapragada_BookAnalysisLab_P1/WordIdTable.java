@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+/**
+ * Gives each different word a dense int ID, 0, 1, 2, ..., in the order
+ * the words are first seen, and turns IDs back into words.
+ *
+ * The words are kept in an open-addressing hash table, like the one in
+ * WordCountTable, whose slots hold the ID of their word; only a word seen
+ * for the first time becomes a String.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordIdTable
+{
+    // instance variables
+    private String[] keys;   // the words, null where a slot is empty
+    private int[] hashes;    // cached hash code of the word in each slot
+    private int[] ids;       // the ID of the word in each slot
+    private String[] words;  // the word of each ID
+    private int size;        // number of IDs given out
+
+    /**
+     * Constructor for an empty table.
+     */
+    public WordIdTable()
+    {
+        keys = new String[1 << 12];
+        hashes = new int[keys.length];
+        ids = new int[keys.length];
+        words = new String[1 << 11];
+    }
+
+    /**
+     * Finds the ID of a word held in part of a char array, giving it the
+     * next ID if it has none yet.
+     *
+     * @param text    the characters holding the word
+     * @param offset  the position of the first character of the word
+     * @param length  the number of characters in the word
+     * @return        the ID of the word
+     */
+    public int add(char[] text, int offset, int length)
+    {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = 31 * hash + text[i];
+        }
+        int mask = keys.length - 1;
+        int slot = WordCountTable.spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && WordCountTable.matches(keys[slot], text, offset, length))
+            {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if ((size + 1) * 4L > keys.length * 3L)
+        {
+            grow();
+            mask = keys.length - 1;
+            slot = WordCountTable.spread(hash) & mask;
+            while (keys[slot] != null)
+            {
+                slot = (slot + 1) & mask;
+            }
+        }
+        if (size == words.length)
+        {
+            words = Arrays.copyOf(words, words.length * 2);
+        }
+        String word = new String(text, offset, length);
+        keys[slot] = word;
+        hashes[slot] = hash;
+        ids[slot] = size;
+        words[size] = word;
+        return size++;
+    }
+
+    /**
+     * Finds the ID of a word, without giving it one.
+     *
+     * @param word  the word
+     * @return      its ID, or -1 if it has not been seen
+     */
+    public int find(String word)
+    {
+        int hash = word.hashCode();
+        int mask = keys.length - 1;
+        int slot = WordCountTable.spread(hash) & mask;
+        while (keys[slot] != null)
+        {
+            if (hashes[slot] == hash && keys[slot].equals(word))
+            {
+                return ids[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieve the word with an ID.
+     *
+     * @param id  the ID, from 0 up to size()
+     * @return    the word
+     */
+    public String getWord(int id)
+    {
+        return words[id];
+    }
+
+    /**
+     * Retrieve the number of different words.
+     *
+     * @return the number of IDs given out
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Estimates how many bytes of memory the table takes up, including
+     * the words.
+     *
+     * @return the approximate size of the table in bytes
+     */
+    public long memoryBytes()
+    {
+        long bytes = 4 * 16 + 4L * keys.length + 4L * hashes.length + 4L * ids.length
+            + 4L * words.length;
+        for (int id = 0; id < size; id++)
+        {
+            // a String and its array, each with a header
+            bytes += 24 + 16 + words[id].length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Doubles the size of the table, placing every word again.
+     */
+    private void grow()
+    {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        int[] oldIds = ids;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[keys.length];
+        ids = new int[keys.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != null)
+            {
+                int slot = WordCountTable.spread(oldHashes[i]) & mask;
+                while (keys[slot] != null)
+                {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                hashes[slot] = oldHashes[i];
+                ids[slot] = oldIds[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An unchangeable copy of the words of a WordAnalysis, taken at one
+ * moment, that answers the same queries.
+ *
+ * Every field is filled in by the constructor and never changed, and the
+ * words are copied into arrays rather than shared as Word objects, so any
+ * number of threads may query an index at the same time without locking,
+ * even while the WordAnalysis it came from is being sorted or read into.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordIndex
+{
+    // instance variables
+    private final String[] alphabetical;   // the words in lexicographic order
+    private final int[] frequencies;       // frequency of each of those words
+    private final String[] ranked;         // the words by frequency, highest first
+    private final int[] rankedFrequencies; // frequency of each of those words
+    private final long[] rankedSums;       // rankedSums[i] is the sum of the i highest
+    private final long[] listSums;         // running totals in the words list's order
+
+    /**
+     * Constructor for an index of the words in their three orders.
+     *
+     * @param list         the words in the order of the words list
+     * @param sorted       the same words in lexicographic order
+     * @param byFrequency  the same words by frequency, highest first
+     */
+    WordIndex(List<Word> list, List<Word> sorted, List<Word> byFrequency)
+    {
+        int n = sorted.size();
+        alphabetical = new String[n];
+        frequencies = new int[n];
+        for (int index = 0; index < n; index++)
+        {
+            alphabetical[index] = sorted.get(index).getWord();
+            frequencies[index] = sorted.get(index).getFrequency();
+        }
+
+        ranked = new String[n];
+        rankedFrequencies = new int[n];
+        rankedSums = new long[n + 1];
+        for (int index = 0; index < n; index++)
+        {
+            ranked[index] = byFrequency.get(index).getWord();
+            rankedFrequencies[index] = byFrequency.get(index).getFrequency();
+            rankedSums[index + 1] = rankedSums[index] + rankedFrequencies[index];
+        }
+
+        listSums = new long[n + 1];
+        for (int index = 0; index < n; index++)
+        {
+            listSums[index + 1] = listSums[index] + list.get(index).getFrequency();
+        }
+    }
+
+    /**
+     * Determines how many words, in total, are in the book.
+     *
+     * @return the total of all the frequencies
+     */
+    public long sumWords()
+    {
+        return rankedSums[rankedSums.length - 1];
+    }
+
+    /**
+     * Returns how many different words are in the book.
+     *
+     * @return the number of different words
+     */
+    public int getNumberOfUniqueWords()
+    {
+        return alphabetical.length;
+    }
+
+    /**
+     * Finds the position of a word in lexicographic order.
+     *
+     * @param txt  the word to be found
+     * @return     the position of txt, or -1 if it is not in the book
+     */
+    public int findWord(String txt)
+    {
+        int index = Arrays.binarySearch(alphabetical, txt);
+        return index < 0 ? -1 : index;
+    }
+
+    /**
+     * Finds how often a word appears.
+     *
+     * @param txt  the word to be found
+     * @return     how often txt appears; 0 if it is not in the book
+     */
+    public int frequencyOf(String txt)
+    {
+        int index = findWord(txt);
+        return index < 0 ? 0 : frequencies[index];
+    }
+
+    /**
+     * Determines how many times the first number of words in the words
+     * list, in the order it had when the index was taken, appear.
+     *
+     * @param number  how many words to add up; a number past the end of
+     *                the list means all of it
+     * @return        the sum of their frequencies
+     */
+    public long sumTopWords(int number)
+    {
+        return listSums[Math.max(0, Math.min(number, listSums.length - 1))];
+    }
+
+    /**
+     * Determines the proportion of the words in the book made up by the
+     * first num words in the words list.
+     *
+     * @param num  how many words to use
+     * @return     sumTopWords(num) divided by sumWords(), or 0.0 for an
+     *             empty book
+     */
+    public double getWordQuotient(int num)
+    {
+        long total = sumWords();
+        return total == 0 ? 0.0 : (double)sumTopWords(num) / total;
+    }
+
+    /**
+     * Determines how many times the k most frequent words appear.
+     *
+     * @param k  how many of the most frequent words to add up
+     * @return   the sum of their frequencies
+     */
+    public long sumMostFrequentWords(int k)
+    {
+        return rankedSums[Math.max(0, Math.min(k, rankedSums.length - 1))];
+    }
+
+    /**
+     * Finds the k most frequent words, with ties in lexicographic order.
+     *
+     * @param k  the number of words wanted
+     * @return   the k most frequent words (or all of them, if there are
+     *           fewer than k), most frequent first
+     */
+    public ArrayList<Word> topWords(int k)
+    {
+        int count = Math.max(0, Math.min(k, ranked.length));
+        ArrayList<Word> top = new ArrayList<Word>(count);
+        for (int index = 0; index < count; index++)
+        {
+            top.add(new Word(ranked[index], rankedFrequencies[index]));
+        }
+        return top;
+    }
+}
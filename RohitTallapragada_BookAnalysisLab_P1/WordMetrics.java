@@ -0,0 +1,326 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts and times the phases of WordAnalysis, so that a slow run can be
+ * traced to the Scanner, cleanUp, the insertions into the words list,
+ * the sorts or the searches.
+ *
+ * Nothing is measured unless metrics are enabled, either by calling
+ * setEnabled or by starting Java with -Dwordanalysis.metrics=true.  While
+ * they are disabled, each instrumented spot costs one check of a static
+ * boolean.  While they are enabled, every phase also commits a
+ * WordPhaseEvent, which shows up in a Java Flight Recorder recording.
+ *
+ * The totals so far are read with snapshot, which returns an unchanging
+ * copy of them that can be printed with report.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordMetrics
+{
+    /**
+     * The phases that are timed.
+     */
+    public enum Phase
+    {
+        /**
+         * reading a book, from opening the file to closing it, in any
+         * IngestMode; loading a snapshot instead; or a refresh
+         */
+        READ_FILE,
+
+        /**
+         * the Scanner finding, lowercasing and trimming each token, in
+         * SEQUENTIAL and HASHED modes; a WordTokenizer does this, cleanUp
+         * and counting in one pass, timed only as READ_FILE
+         */
+        SCAN,
+
+        /** cleanUp removing the characters that are not part of words */
+        CLEAN_UP,
+
+        /**
+         * sequentialSearchToProcessWord and addWord putting a word in the
+         * list, or the counts table counting it in HASHED mode
+         */
+        INSERT,
+
+        /** putting the words list in lexicographic order */
+        SORT_WORDS,
+
+        /** putting the words list in order by frequency */
+        SORT_FREQUENCY,
+
+        /** findWord looking up one word */
+        SEARCH
+    }
+
+    /**
+     * The things that are counted, apart from the phases.
+     */
+    public enum Counter
+    {
+        /** tokens found by the Scanner, or words found by a WordTokenizer */
+        TOKENS_READ,
+
+        /**
+         * tokens that cleanUp left with no characters; a WordTokenizer
+         * drops those without counting them
+         */
+        TOKENS_REJECTED,
+
+        /** words counted for the first time */
+        NEW_WORDS,
+
+        /** words already in the list, whose frequency went up by one */
+        REPEATED_WORDS
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean("wordanalysis.metrics");
+
+    private static final LongAdder[] phaseCounts = adders(Phase.values().length);
+    private static final LongAdder[] phaseNanos = adders(Phase.values().length);
+    private static final LongAdder[] counters = adders(Counter.values().length);
+
+    // instance variables: the totals when the snapshot was taken
+    private final long[] counts;
+    private final long[] nanos;
+    private final long[] counted;
+
+    /**
+     * Constructor for a snapshot of the totals so far.
+     */
+    private WordMetrics()
+    {
+        counts = sums(phaseCounts);
+        nanos = sums(phaseNanos);
+        counted = sums(counters);
+    }
+
+    /**
+     * Returns whether metrics are being collected.
+     *
+     * @return true if metrics are enabled; otherwise, false
+     */
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns the collection of metrics on or off.  The totals so far are
+     * kept either way.
+     *
+     * @param on  true to collect metrics; false to stop
+     */
+    public static void setEnabled(boolean on)
+    {
+        enabled = on;
+    }
+
+    /**
+     * Sets every total back to 0.
+     */
+    public static void reset()
+    {
+        for (LongAdder adder : phaseCounts)
+        {
+            adder.reset();
+        }
+        for (LongAdder adder : phaseNanos)
+        {
+            adder.reset();
+        }
+        for (LongAdder adder : counters)
+        {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Takes a copy of the totals so far.
+     *
+     * @return the snapshot
+     */
+    public static WordMetrics snapshot()
+    {
+        return new WordMetrics();
+    }
+
+    /**
+     * Starts timing one run of a phase.
+     *
+     * @param phase  the phase starting
+     * @return       the event that end needs, or null if metrics are
+     *               disabled
+     */
+    public static WordPhaseEvent begin(Phase phase)
+    {
+        if (!enabled)
+        {
+            return null;
+        }
+        WordPhaseEvent event = new WordPhaseEvent(phase);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes timing one run of a phase, adding it to the totals and
+     * committing its event.
+     *
+     * @param event  what begin returned; nothing is done if it is null
+     * @param items  how many words or tokens the phase handled
+     */
+    public static void end(WordPhaseEvent event, long items)
+    {
+        if (event != null)
+        {
+            event.end();
+            long time = System.nanoTime() - event.startNanos;
+            record(event.phase, 1, time);
+            event.items = items;
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds all the runs of a phase that runs many times in a loop, such
+     * as SCAN, to the totals at once, and commits one event for them.
+     * The caller times the runs itself, only while metrics are enabled.
+     *
+     * @param phase  the phase
+     * @param items  how many times it ran
+     * @param time   the nanoseconds it took altogether
+     */
+    public static void summarize(Phase phase, long items, long time)
+    {
+        if (enabled)
+        {
+            record(phase, items, time);
+            WordPhaseEvent event = new WordPhaseEvent(phase);
+            event.items = items;
+            event.time = time;
+            event.commit();
+        }
+    }
+
+    /**
+     * Adds to a counter, if metrics are enabled.
+     *
+     * @param counter  what is being counted
+     * @param amount   how much to add
+     */
+    public static void add(Counter counter, long amount)
+    {
+        if (enabled)
+        {
+            counters[counter.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Retrieve how many times a phase ran, as of the snapshot.
+     *
+     * @param phase  the phase of interest
+     * @return       the number of runs
+     */
+    public long getCount(Phase phase)
+    {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * Retrieve how long a phase took altogether, as of the snapshot.
+     *
+     * @param phase  the phase of interest
+     * @return       the total time, in nanoseconds
+     */
+    public long getNanos(Phase phase)
+    {
+        return nanos[phase.ordinal()];
+    }
+
+    /**
+     * Retrieve a counter, as of the snapshot.
+     *
+     * @param counter  the counter of interest
+     * @return         its value
+     */
+    public long getCount(Counter counter)
+    {
+        return counted[counter.ordinal()];
+    }
+
+    /**
+     * Writes the snapshot as a table: for each phase, how many times it
+     * ran, its total and mean time, followed by the counters.
+     *
+     * @return the report
+     */
+    public String report()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-16s %12s %14s %14s\n", "Phase", "Runs", "Total ms",
+            "Mean us"));
+        for (Phase phase : Phase.values())
+        {
+            long runs = getCount(phase);
+            report.append(String.format("%-16s %12d %14.3f %14.3f\n", phase, runs,
+                getNanos(phase) / 1e6, runs == 0 ? 0.0 : getNanos(phase) / 1e3 / runs));
+        }
+        report.append('\n');
+        for (Counter counter : Counter.values())
+        {
+            report.append(String.format("%-16s %12d\n", counter, getCount(counter)));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Adds runs of a phase to its totals.
+     *
+     * @param phase  the phase
+     * @param runs   how many times it ran
+     * @param time   how long the runs took, in nanoseconds
+     */
+    private static void record(Phase phase, long runs, long time)
+    {
+        phaseCounts[phase.ordinal()].add(runs);
+        phaseNanos[phase.ordinal()].add(time);
+    }
+
+    /**
+     * Creates an array of adders, all 0.
+     *
+     * @param n  the length of the array
+     * @return   the adders
+     */
+    private static LongAdder[] adders(int n)
+    {
+        LongAdder[] adders = new LongAdder[n];
+        for (int i = 0; i < n; i++)
+        {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Reads the current value of every adder.
+     *
+     * @param adders  the adders
+     * @return        their values
+     */
+    private static long[] sums(LongAdder[] adders)
+    {
+        long[] values = new long[adders.length];
+        for (int i = 0; i < adders.length; i++)
+        {
+            values[i] = adders[i].sum();
+        }
+        return values;
+    }
+}
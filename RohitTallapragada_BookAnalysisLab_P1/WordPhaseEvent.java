@@ -0,0 +1,53 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A Java Flight Recorder event for one phase of WordAnalysis, committed
+ * by WordMetrics while metrics are enabled.
+ *
+ * For a phase that runs once, such as a sort, the event's own duration
+ * covers it.  For a phase that runs once per token, such as cleanUp, one
+ * event sums up all the runs in a read of a file: items is the number of
+ * runs and time is their total.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+@Name("bookanalysis.Phase")
+@Label("Word Analysis Phase")
+@Category("Book Analysis")
+@Description("A phase of reading, sorting or searching the words of a book")
+@StackTrace(false)
+public class WordPhaseEvent extends jdk.jfr.Event
+{
+    @Label("Phase")
+    String name;
+
+    @Label("Items")
+    @Description("The number of words or tokens handled")
+    long items;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+
+    // not recorded, since they are transient
+    transient WordMetrics.Phase phase;
+    transient long startNanos;
+
+    /**
+     * Constructor for an event of a phase, starting now.
+     *
+     * @param phase  the phase
+     */
+    WordPhaseEvent(WordMetrics.Phase phase)
+    {
+        this.phase = phase;
+        name = phase.name();
+        startNanos = System.nanoTime();
+    }
+}
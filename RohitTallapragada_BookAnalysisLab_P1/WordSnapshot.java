@@ -0,0 +1,380 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A saved copy of the words of a book and their frequencies, so the book
+ * does not have to be read again the next time it is analyzed.
+ *
+ * A snapshot file holds, in order:
+ *      int      MAGIC
+ *      int      VERSION
+ *      long     size of the book, in bytes, when it was read
+ *      long     last modified time of the book, in milliseconds
+ *      int      number of words, n
+ *      long     total of all the frequencies
+ *      int      number of bytes in the string table
+ *      int[n+1] where each word starts in the string table
+ *      int[n]   frequency of each word
+ *      byte[]   string table: the UTF-8 words in lexicographic order
+ *      long     CRC32 checksum of everything before it
+ *
+ * An open snapshot is a read-only memory-mapped view of the file; words
+ * are only turned into Strings when they are asked for.  find looks a
+ * word up with a binary search over the mapped string table, comparing
+ * bytes, so looking up a word does not read in the rest.  Words come from
+ * WordTokenizer or cleanUp and are ASCII, for which UTF-8 order is the
+ * same as String order.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordSnapshot
+{
+    /** The first four bytes of every snapshot file: "WASN". */
+    public static final int MAGIC = 0x5741534E;
+
+    /**
+     * The version of the snapshots written by save.  It changes when the
+     * file layout changes, and also when WordTokenizer splits or lower
+     * cases text differently, since a snapshot holds the words found by
+     * the old rules.  Version 2 is the first with the Kelvin sign and the
+     * capital I with a dot above counted as letters.
+     */
+    public static final int VERSION = 2;
+
+    // size of the fixed fields at the start of the file
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 8 + 4;
+
+    // instance variables
+    private MappedByteBuffer data;  // the whole file
+    private int size;               // number of words
+    private long total;             // total of all the frequencies
+    private int offsetsAt;          // where the word starts begin in data
+    private int frequenciesAt;      // where the frequencies begin in data
+    private int stringsAt;          // where the string table begins in data
+
+    /**
+     * Constructor for a snapshot of an already mapped and checked file.
+     *
+     * @param data  the whole snapshot file
+     */
+    private WordSnapshot(MappedByteBuffer data)
+    {
+        this.data = data;
+        size = data.getInt(24);
+        total = data.getLong(28);
+        offsetsAt = HEADER_SIZE;
+        frequenciesAt = offsetsAt + 4 * (size + 1);
+        stringsAt = frequenciesAt + 4 * size;
+    }
+
+    /**
+     * Writes a snapshot of the words of a book.  The snapshot is written
+     * to a temporary file first and then moved into place, so a reader
+     * never sees half a snapshot.
+     *
+     * @param snapshotName    the pathname of the snapshot file
+     * @param sourceSize      the size of the book when it was read
+     * @param sourceModified  the last modified time of the book when it was read
+     * @param sorted          the words, in lexicographic order
+     * @throws IOException the snapshot cannot be written
+     */
+    public static void save(String snapshotName, long sourceSize, long sourceModified,
+                            List<Word> sorted) throws IOException
+    {
+        byte[][] encoded = new byte[sorted.size()][];
+        int stringBytes = 0;
+        long total = 0;
+        for (int i = 0; i < encoded.length; i++)
+        {
+            encoded[i] = sorted.get(i).getWord().getBytes(StandardCharsets.UTF_8);
+            stringBytes += encoded[i].length;
+            total += sorted.get(i).getFrequency();
+        }
+
+        int n = encoded.length;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + 4 * (n + 1) + 4 * n
+            + stringBytes + 8);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putLong(sourceSize);
+        out.putLong(sourceModified);
+        out.putInt(n);
+        out.putLong(total);
+        out.putInt(stringBytes);
+        int offset = 0;
+        for (int i = 0; i < n; i++)
+        {
+            out.putInt(offset);
+            offset += encoded[i].length;
+        }
+        out.putInt(offset);
+        for (int i = 0; i < n; i++)
+        {
+            out.putInt(sorted.get(i).getFrequency());
+        }
+        for (int i = 0; i < n; i++)
+        {
+            out.put(encoded[i]);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), 0, out.position());
+        out.putLong(crc.getValue());
+
+        Path target = Paths.get(snapshotName).toAbsolutePath();
+        Path temp = Files.createTempFile(target.getParent(), "snapshot", ".tmp");
+        try
+        {
+            Files.write(temp, out.array());
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Opens a snapshot by memory-mapping it, checking its layout and
+     * checksum.
+     *
+     * @param snapshotName  the pathname of the snapshot file
+     * @return              the open snapshot
+     * @throws IOException the file cannot be read, or is not a snapshot of
+     *                     this version, or is damaged
+     */
+    public static WordSnapshot open(String snapshotName) throws IOException
+    {
+        MappedByteBuffer data;
+        FileChannel channel = FileChannel.open(Paths.get(snapshotName), StandardOpenOption.READ);
+        try
+        {
+            long length = channel.size();
+            if (length < HEADER_SIZE + 4 + 8 || length > Integer.MAX_VALUE)
+            {
+                throw new IOException(snapshotName + " is not a word snapshot.");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        }
+        finally
+        {
+            channel.close();
+        }
+
+        if (data.getInt(0) != MAGIC)
+        {
+            throw new IOException(snapshotName + " is not a word snapshot.");
+        }
+        if (data.getInt(4) != VERSION)
+        {
+            throw new IOException(snapshotName + " has version " + data.getInt(4)
+                + "; expected version " + VERSION + ".");
+        }
+        long n = data.getInt(24);
+        long stringBytes = data.getInt(36);
+        if (n < 0 || stringBytes < 0 ||
+            HEADER_SIZE + 4 * (n + 1) + 4 * n + stringBytes + 8 != data.capacity())
+        {
+            throw new IOException(snapshotName + " has the wrong length.");
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer body = data.duplicate();
+        body.limit(data.capacity() - 8);
+        crc.update(body);
+        if (crc.getValue() != data.getLong(data.capacity() - 8))
+        {
+            throw new IOException(snapshotName + " is damaged: its checksum does not match.");
+        }
+        return new WordSnapshot(data);
+    }
+
+    /**
+     * Returns whether a snapshot file is of this version and the book
+     * still has the size and last modified time it had when the snapshot
+     * was taken.  Only the header is read; the file is not mapped, so an
+     * out-of-date snapshot can be replaced right away.  (On some systems,
+     * such as Windows, a mapped file cannot be replaced until its buffer
+     * is garbage collected.)  The checksum is not checked until open.
+     *
+     * @param snapshotName  the pathname of the snapshot file
+     * @param sourceName    the pathname of the book
+     * @return true if the snapshot appears current; otherwise, false
+     * @throws IOException the snapshot or the book cannot be read
+     */
+    public static boolean isCurrent(String snapshotName, String sourceName) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        FileChannel channel = FileChannel.open(Paths.get(snapshotName), StandardOpenOption.READ);
+        try
+        {
+            while (header.hasRemaining() && channel.read(header) >= 0)
+            {
+                // keep reading until the header is full or the file ends
+            }
+        }
+        finally
+        {
+            channel.close();
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+        {
+            return false;
+        }
+        Path source = Paths.get(sourceName);
+        return Files.size(source) == header.getLong(8) &&
+               Files.getLastModifiedTime(source).toMillis() == header.getLong(16);
+    }
+
+    /**
+     * Retrieve the number of words in the snapshot.
+     *
+     * @return the number of different words
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Retrieve the total of all the frequencies.
+     *
+     * @return the number of words in the book, with repetitions
+     */
+    public long total()
+    {
+        return total;
+    }
+
+    /**
+     * Retrieve the word at a position in lexicographic order.
+     *
+     * @param index  the position of the word
+     * @return       the text of the word
+     */
+    public String getWord(int index)
+    {
+        int start = data.getInt(offsetsAt + 4 * index);
+        int end = data.getInt(offsetsAt + 4 * (index + 1));
+        byte[] bytes = new byte[end - start];
+        data.get(stringsAt + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Retrieve the frequency of the word at a position in lexicographic order.
+     *
+     * @param index  the position of the word
+     * @return       how often the word appears
+     */
+    public int getFrequency(int index)
+    {
+        return data.getInt(frequenciesAt + 4 * index);
+    }
+
+    /**
+     * Makes a Word for the word at a position in lexicographic order.
+     *
+     * @param index  the position of the word
+     * @return       the word and its frequency
+     */
+    public Word toWord(int index)
+    {
+        return new Word(getWord(index), getFrequency(index));
+    }
+
+    /**
+     * Finds the position of a word with a binary search, comparing its
+     * bytes with the mapped string table without making any Strings.
+     *
+     * @param word  the word to be found
+     * @return      its position in lexicographic order, or -1 if it is
+     *              not in the snapshot
+     */
+    public int find(String word)
+    {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = size - 1;
+        while (low <= high)
+        {
+            int mid = (low + high) >>> 1;
+            int compare = compareAt(mid, key);
+            if (compare == 0)
+            {
+                return mid;
+            }
+            if (compare > 0)
+            {
+                high = mid - 1;
+            }
+            else
+            {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds how often a word appears.
+     *
+     * @param word  the word of interest
+     * @return      how often it appears; 0 if it is not in the snapshot
+     */
+    public int frequencyOf(String word)
+    {
+        int index = find(word);
+        return index < 0 ? 0 : getFrequency(index);
+    }
+
+    /**
+     * Builds a list of Word objects for every word in the snapshot.
+     *
+     * @return the words list in lexicographic order
+     */
+    public ArrayList<Word> toList()
+    {
+        ArrayList<Word> list = new ArrayList<Word>(size);
+        for (int index = 0; index < size; index++)
+        {
+            list.add(toWord(index));
+        }
+        return list;
+    }
+
+    /**
+     * Compares the word at a position with the bytes of another word.
+     *
+     * @param index  the position of the stored word
+     * @param key    the UTF-8 bytes of the other word
+     * @return       < 0, 0 or > 0 as the stored word comes before, is
+     *               equal to, or comes after the other word
+     */
+    private int compareAt(int index, byte[] key)
+    {
+        int start = stringsAt + data.getInt(offsetsAt + 4 * index);
+        int length = stringsAt + data.getInt(offsetsAt + 4 * (index + 1)) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++)
+        {
+            int difference = (data.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0)
+            {
+                return difference;
+            }
+        }
+        return length - key.length;
+    }
+}
@@ -0,0 +1,400 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Splits text into words the same way WordAnalysis.readFile and cleanUp
+ * do, one character at a time and without creating any objects per word.
+ *
+ * Text is split where there is white space.  Within each piece, only the
+ * letters a through z are kept, in lower case; an apostrophe or a hyphen
+ * is kept only when the characters on both sides of it are letters.
+ * Every word that is left is passed to a TokenSink.
+ *
+ * Like readFile, which lower cases each piece before cleanUp, the two
+ * characters outside ASCII whose lower case holds an ASCII letter count
+ * too: the Kelvin sign (U+212A) as k, and a capital I with a dot above
+ * (U+0130) as i followed by a character that is not a letter.  This is
+ * lower casing as in Locale.ROOT; readFile uses the default locale, which
+ * only differs for Turkish, Azeri and Lithuanian.
+ *
+ * Text may be fed as chars or as ASCII/UTF-8 bytes, in any number of
+ * pieces; a word, or a UTF-8 character, split between two pieces is put
+ * back together.  Call finish after the last piece.
+ *
+ * Bytes are normally looked at eight at a time, as one long: a few
+ * arithmetic and bitwise operations on the long find which of its bytes
+ * are ASCII letters and lower case all of them at once, and the letters
+ * at its start are added to the word together.  Only the byte that ends
+ * a run of letters, and any byte while a UTF-8 character is being put
+ * together, goes through the one-byte-at-a-time path.  The words are
+ * exactly the same either way; the system property
+ * wordanalysis.scalarTokenizer=true, or the constructor's wordAtATime
+ * argument, turns the eight-byte path off.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+public class WordTokenizer
+{
+    // kinds of characters
+    private static final byte OTHER = 0;    // dropped from a word
+    private static final byte LETTER = 1;   // kept in a word
+    private static final byte JOINER = 2;   // apostrophe or hyphen
+    private static final byte SPACE = 3;    // ends a word
+
+    // the kind of, and lower case form of, every ASCII character
+    private static final byte[] KINDS = new byte[128];
+    private static final char[] LOWER = new char[128];
+
+    static
+    {
+        for (char c = 0; c < 128; c++)
+        {
+            LOWER[c] = c;
+            if (Character.isWhitespace(c))
+            {
+                KINDS[c] = SPACE;
+            }
+        }
+        for (char c = 'a'; c <= 'z'; c++)
+        {
+            KINDS[c] = LETTER;
+            KINDS[c - 'a' + 'A'] = LETTER;
+            LOWER[c - 'a' + 'A'] = c;
+        }
+        KINDS['\''] = JOINER;
+        KINDS['-'] = JOINER;
+    }
+
+    // whether new tokenizers look at eight bytes at a time
+    private static final boolean WORD_AT_A_TIME = !Boolean.getBoolean("wordanalysis.scalarTokenizer");
+
+    // a byte repeated in all eight bytes of a long
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long CASE_BITS = 0x2020202020202020L;
+    private static final long BELOW_A = 0x1F1F1F1F1F1F1F1FL;    // 0x80 - 'a'
+    private static final long ABOVE_Z = 0x0505050505050505L;    // 0x7F - 'z'
+
+    // instance variables
+    private TokenSink sink;       // where the words are sent
+    private char[] word;          // the word being built, reused for every word
+    private int length;           // number of characters in word
+    private boolean afterLetter;  // whether the last character seen was a letter
+    private char pending;         // a joiner after a letter, or 0
+    private int codePoint;        // UTF-8 character being decoded
+    private int bytesNeeded;      // bytes still missing from codePoint
+    private boolean wordAtATime;  // whether bytes are looked at eight at a time
+
+    /**
+     * Constructor for a tokenizer that sends its words to sink.
+     *
+     * @param sink  where the words are sent
+     */
+    public WordTokenizer(TokenSink sink)
+    {
+        this(sink, WORD_AT_A_TIME);
+    }
+
+    /**
+     * Constructor for a tokenizer that sends its words to sink, choosing
+     * whether bytes are looked at eight at a time or one at a time.
+     *
+     * @param sink         where the words are sent
+     * @param wordAtATime  true to look at eight bytes at a time
+     */
+    public WordTokenizer(TokenSink sink, boolean wordAtATime)
+    {
+        this.sink = sink;
+        this.wordAtATime = wordAtATime;
+        word = new char[64];
+    }
+
+    /**
+     * Splits the characters into words.
+     *
+     * @param text    the characters to be split
+     * @param offset  the position of the first character
+     * @param count   the number of characters
+     */
+    public void feed(char[] text, int offset, int count)
+    {
+        int end = offset + count;
+        for (int i = offset; i < end; i++)
+        {
+            accept(text[i]);
+        }
+    }
+
+    /**
+     * Splits ASCII or UTF-8 bytes into words, reading the bytes between
+     * the buffer's position and limit.  The buffer's position is moved
+     * to its limit.
+     *
+     * @param bytes  the bytes to be split
+     */
+    public void feed(ByteBuffer bytes)
+    {
+        int end = bytes.limit();
+        int i = bytes.position();
+        if (wordAtATime)
+        {
+            boolean bigEndian = bytes.order() == ByteOrder.BIG_ENDIAN;
+            while (i <= end - 8)
+            {
+                if (bytesNeeded > 0)
+                {
+                    acceptByte(bytes.get(i));
+                    i++;
+                    continue;
+                }
+                long eight = bytes.getLong(i);
+                if (!bigEndian)
+                {
+                    eight = Long.reverseBytes(eight);
+                }
+                int letters = acceptLetters(eight);
+                i += letters;
+                if (letters < 8)
+                {
+                    // the byte after the letters is not a letter
+                    acceptByte(bytes.get(i));
+                    i++;
+                }
+            }
+        }
+        for (; i < end; i++)
+        {
+            acceptByte(bytes.get(i));
+        }
+        bytes.position(end);
+    }
+
+    /**
+     * Sends the last word, if there is one, to the sink.  The tokenizer
+     * can then be used for new text.
+     */
+    public void finish()
+    {
+        endWord();
+        bytesNeeded = 0;
+    }
+
+    /**
+     * Returns whether a character ends a word, as white space does.
+     *
+     * @param codePoint  the character, as decoded from UTF-8
+     * @return           true if it is white space; otherwise, false
+     */
+    public static boolean isWhiteSpace(int codePoint)
+    {
+        // characters past U+FFFF are taken as U+FFFD, which is not white space
+        return codePoint >= 0 && codePoint < 0x10000 && Character.isWhitespace((char)codePoint);
+    }
+
+    /**
+     * Adds the ASCII letters at the start of eight bytes to the word, the
+     * same way accept would add them one at a time.  The first byte is in
+     * the highest eight bits of the long.
+     *
+     * A byte is a letter when it is below 0x80 and, with its 0x20 bit set
+     * to lower case it, lies between 'a' and 'z'.  Adding 0x80 - 'a' to
+     * every byte at once sets a byte's high bit when it is at least 'a',
+     * and adding 0x7F - 'z' sets it when it is more than 'z'.  The bytes
+     * are below 0x80 when added to, so no carry goes into the next byte.
+     *
+     * @param eight  the next eight bytes
+     * @return       the number of letters added, from 0 to 8
+     */
+    private int acceptLetters(long eight)
+    {
+        long lower = (eight & LOW_SEVEN_BITS) | CASE_BITS;
+        long letterBits = (lower + BELOW_A) & ~(lower + ABOVE_Z) & ~eight & HIGH_BITS;
+        int letters = Long.numberOfLeadingZeros(~letterBits & HIGH_BITS) >>> 3;
+        if (letters == 0)
+        {
+            return 0;
+        }
+
+        // all eight bytes are copied, since that is quicker than copying
+        // just the letters; only the letters are counted in length
+        if (length + 9 > word.length)
+        {
+            char[] bigger = new char[Math.max(word.length * 2, length + 9)];
+            System.arraycopy(word, 0, bigger, 0, length);
+            word = bigger;
+        }
+        if (pending != 0)
+        {
+            word[length] = pending;
+            length++;
+            pending = 0;
+        }
+        char[] w = word;
+        int at = length;
+        w[at] = (char)(lower >>> 56);
+        w[at + 1] = (char)((lower >>> 48) & 0xFF);
+        w[at + 2] = (char)((lower >>> 40) & 0xFF);
+        w[at + 3] = (char)((lower >>> 32) & 0xFF);
+        w[at + 4] = (char)((lower >>> 24) & 0xFF);
+        w[at + 5] = (char)((lower >>> 16) & 0xFF);
+        w[at + 6] = (char)((lower >>> 8) & 0xFF);
+        w[at + 7] = (char)(lower & 0xFF);
+        length += letters;
+        afterLetter = true;
+        return letters;
+    }
+
+    /**
+     * Handles the next byte of UTF-8 text.  ASCII bytes are handled
+     * right away; the bytes of any other character are put together
+     * first, since only white space matters among those characters.
+     *
+     * @param b  the next byte
+     */
+    private void acceptByte(byte b)
+    {
+        if (b >= 0)
+        {
+            if (bytesNeeded > 0)
+            {
+                // the previous character was cut short
+                bytesNeeded = 0;
+                accept('\uFFFD');
+            }
+            accept((char)b);
+        }
+        else if ((b & 0xC0) == 0x80)
+        {
+            if (bytesNeeded == 0)
+            {
+                accept('\uFFFD');
+            }
+            else
+            {
+                codePoint = (codePoint << 6) | (b & 0x3F);
+                bytesNeeded--;
+                if (bytesNeeded == 0)
+                {
+                    accept(codePoint < 0x10000 ? (char)codePoint : '\uFFFD');
+                }
+            }
+        }
+        else
+        {
+            if (bytesNeeded > 0)
+            {
+                accept('\uFFFD');
+            }
+            if ((b & 0xE0) == 0xC0)
+            {
+                codePoint = b & 0x1F;
+                bytesNeeded = 1;
+            }
+            else if ((b & 0xF0) == 0xE0)
+            {
+                codePoint = b & 0x0F;
+                bytesNeeded = 2;
+            }
+            else if ((b & 0xF8) == 0xF0)
+            {
+                codePoint = b & 0x07;
+                bytesNeeded = 3;
+            }
+            else
+            {
+                bytesNeeded = 0;
+                accept('\uFFFD');
+            }
+        }
+    }
+
+    /**
+     * Handles the next character of the text.
+     *
+     * @param c  the next character
+     */
+    private void accept(char c)
+    {
+        int kind;
+        if (c < 128)
+        {
+            kind = KINDS[c];
+            c = LOWER[c];
+        }
+        else if (Character.isWhitespace(c))
+        {
+            kind = SPACE;
+        }
+        else if (c == '\u212A')
+        {
+            // the Kelvin sign lower cases to k
+            kind = LETTER;
+            c = 'k';
+        }
+        else if (c == '\u0130')
+        {
+            // a capital I with a dot above lower cases to i followed by a
+            // combining dot, which is not a letter
+            accept('i');
+            accept('\u0307');
+            return;
+        }
+        else
+        {
+            kind = OTHER;
+        }
+
+        if (kind == LETTER)
+        {
+            if (pending != 0)
+            {
+                append(pending);
+                pending = 0;
+            }
+            append(c);
+            afterLetter = true;
+        }
+        else if (kind == SPACE)
+        {
+            endWord();
+        }
+        else
+        {
+            pending = (kind == JOINER && afterLetter) ? c : 0;
+            afterLetter = false;
+        }
+    }
+
+    /**
+     * Sends the word that has been built, if any, to the sink and starts
+     * a new one.
+     */
+    private void endWord()
+    {
+        if (length > 0)
+        {
+            sink.token(word, 0, length);
+        }
+        length = 0;
+        afterLetter = false;
+        pending = 0;
+    }
+
+    /**
+     * Adds a character to the word being built, making room if needed.
+     *
+     * @param c  the character to be added
+     */
+    private void append(char c)
+    {
+        if (length == word.length)
+        {
+            char[] bigger = new char[word.length * 2];
+            System.arraycopy(word, 0, bigger, 0, length);
+            word = bigger;
+        }
+        word[length] = c;
+        length++;
+    }
+}
@@ -0,0 +1,214 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * JMH benchmarks of the WordAnalysis hot paths: readFile, cleanUp,
+ * sequentialSearchToProcessWord, sortWords, sortFrequency,
+ * sortFrequencyByCounting and findWord, and WordTokenizer one byte at a
+ * time (tokenizeScalar) and eight bytes at a time (tokenizeWordAtATime).
+ *
+ * JMH does not allow benchmarks in the default package, and a class in a
+ * named package cannot name the project's classes, which are all in the
+ * default package.  So the work of each benchmark is built by
+ * HotPathBenchmark.operationFor, which is found by reflection once per
+ * trial, and is called through the JDK interfaces it implements:
+ * Runnable for the set-up before a call and LongSupplier for the work.
+ *
+ * The input parameter is the name of a book, relative to the directory
+ * the benchmarks are run from, or a synthetic corpus written as
+ * zipf:WORDS[:VOCABULARY[:EXPONENT]]; see HotPathBenchmark.
+ *
+ * @author Rohit Tallapragada
+ * @version Oct 18, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotPathBenchmarks
+{
+    /**
+     * The work of one benchmark on one input.
+     */
+    @State(Scope.Thread)
+    public static class Work
+    {
+        /** The book, or synthetic corpus, the benchmark runs on. */
+        @Param({"hello.txt", "cat.txt", "MobyDick.txt", "zipf:50000"})
+        public String input;
+
+        // instance variables
+        Runnable setUp;         // the untimed set-up before a call
+        LongSupplier work;      // the work measured
+
+        /**
+         * Builds the work of the benchmark being run.
+         *
+         * @param params  the benchmark being run
+         * @throws ReflectiveOperationException the project is not on the class path
+         */
+        @Setup(Level.Trial)
+        public void build(BenchmarkParams params) throws ReflectiveOperationException
+        {
+            String label = params.getBenchmark();
+            String benchmark = label.substring(label.lastIndexOf('.') + 1);
+            Class<?> harness = Class.forName("HotPathBenchmark");
+            Object fileName = harness.getMethod("resolveInput", String.class)
+                .invoke(null, input);
+            Object operation = harness.getMethod("operationFor", String.class, String.class)
+                .invoke(null, benchmark, fileName);
+            setUp = (Runnable)operation;
+            work = (LongSupplier)operation;
+        }
+    }
+
+    /**
+     * The work of a benchmark that needs its set-up before every call,
+     * such as putting the words list back out of order before a sort.
+     */
+    @State(Scope.Thread)
+    public static class PreparedWork extends Work
+    {
+        /**
+         * Sets up the next call.
+         */
+        @Setup(Level.Invocation)
+        public void prepare()
+        {
+            setUp.run();
+        }
+    }
+
+    /**
+     * Reads a book with IngestMode.SEQUENTIAL, as the original readFile did.
+     *
+     * @param state  the work of the benchmark
+     * @return       the number of unique words
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long readFile(Work state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Cleans up every token of a book.
+     *
+     * @param state  the work of the benchmark
+     * @return       the total length of the cleaned words
+     */
+    @Benchmark
+    public long cleanUp(Work state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Adds every word of a book to an empty analysis with
+     * sequentialSearchToProcessWord.
+     *
+     * @param state  the work of the benchmark
+     * @return       the total of the positions found
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public long sequentialSearchToProcessWord(PreparedWork state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Sorts words that are in frequency order alphabetically.
+     *
+     * @param state  the work of the benchmark
+     * @return       the frequency of the first word
+     */
+    @Benchmark
+    public long sortWords(PreparedWork state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Sorts words that are in alphabetical order by frequency, with the
+     * merge sort.
+     *
+     * @param state  the work of the benchmark
+     * @return       the frequency of the first word
+     */
+    @Benchmark
+    public long sortFrequency(PreparedWork state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Sorts words that are in alphabetical order by frequency, with the
+     * counting sort.
+     *
+     * @param state  the work of the benchmark
+     * @return       the frequency of the first word
+     */
+    @Benchmark
+    public long sortFrequencyByCounting(PreparedWork state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Looks up words, half of which are in the book.
+     *
+     * @param state  the work of the benchmark
+     * @return       the total of the positions found
+     */
+    @Benchmark
+    public long findWord(Work state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Splits the bytes of a book into words one byte at a time.
+     *
+     * @param state  the work of the benchmark
+     * @return       the number of letters in the words so far
+     */
+    @Benchmark
+    public long tokenizeScalar(Work state)
+    {
+        return state.work.getAsLong();
+    }
+
+    /**
+     * Splits the bytes of a book into words eight bytes at a time.
+     *
+     * @param state  the work of the benchmark
+     * @return       the number of letters in the words so far
+     */
+    @Benchmark
+    public long tokenizeWordAtATime(Work state)
+    {
+        return state.work.getAsLong();
+    }
+}